@@ -0,0 +1,207 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static org.junit.Assert.assertEquals;
+import static org.sagebionetworks.bridge.rest.model.EnrollmentFilter.ENROLLED;
+import static org.sagebionetworks.bridge.rest.model.EnrollmentFilter.WITHDRAWN;
+import static org.sagebionetworks.bridge.rest.model.Role.RESEARCHER;
+import static org.sagebionetworks.bridge.rest.model.Role.STUDY_COORDINATOR;
+import static org.sagebionetworks.bridge.rest.model.SearchTermPredicate.OR;
+import static org.sagebionetworks.bridge.sdk.integration.Tests.ORG_ID_1;
+import static org.sagebionetworks.bridge.sdk.integration.Tests.STUDY_ID_1;
+import static org.sagebionetworks.bridge.sdk.integration.Tests.STUDY_ID_2;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.api.OrganizationsApi;
+import org.sagebionetworks.bridge.rest.api.ParticipantsApi;
+import org.sagebionetworks.bridge.rest.api.StudiesApi;
+import org.sagebionetworks.bridge.rest.api.StudyParticipantsApi;
+import org.sagebionetworks.bridge.rest.model.AccountSummarySearch;
+import org.sagebionetworks.bridge.rest.model.EnrollmentFilter;
+import org.sagebionetworks.bridge.rest.model.SignUp;
+import org.sagebionetworks.bridge.user.TestUser;
+import org.sagebionetworks.bridge.user.TestUserHelper;
+
+/**
+ * Seeds many accounts with varied data groups, languages, attributes and enrollments, then times
+ * searchAccountSummaries for every combination of the filters {@link AccountSummarySearchTest} covers, the study
+ * coordinator's getStudyParticipants with each enrollment filter, and pages at increasing offsetBy depths. All
+ * searches are limited to the seeded accounts by an email prefix, as in AccountSummarySearchTest. Size the run with
+ * -Dload.accounts, -Dload.concurrency and -Dload.iterations.
+ */
+@Category(LoadTest.class)
+public class AccountSummarySearchLoadTest {
+    private static final Logger LOG = LoggerFactory.getLogger(AccountSummarySearchLoadTest.class);
+
+    private static final int ACCOUNTS = Integer.getInteger("load.accounts", 1000);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 20);
+    private static final int ITERATIONS = Integer.getInteger("load.iterations", 3);
+    private static final int PAGE_SIZE = 100;
+    private static final List<String> DATA_GROUPS = ImmutableList.of("sdk-int-1", "sdk-int-2", "group1");
+    private static final List<String> LANGUAGES = ImmutableList.of("en", "fr", "es");
+
+    // A filter that can be added to a search, in every combination with the others.
+    private static class Filter {
+        final String name;
+        final Consumer<AccountSummarySearch> apply;
+
+        Filter(String name, Consumer<AccountSummarySearch> apply) {
+            this.name = name;
+            this.apply = apply;
+        }
+    }
+
+    private static String emailPrefix;
+    private static String externalIdPrefix;
+    private static TestUser admin;
+    private static TestUser researcher;
+    private static TestUser studyCoordinator;
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        String tag = RandomStringUtils.randomAlphabetic(4);
+        emailPrefix = "bridge-testing+AccountSummarySearchLoadTest-" + tag + "-";
+        externalIdPrefix = "asl-" + tag + "-";
+
+        admin = TestUserHelper.getSignedInAdmin();
+        researcher = TestUserHelper.createAndSignInUser(AccountSummarySearchLoadTest.class, false, RESEARCHER);
+        studyCoordinator = TestUserHelper.createAndSignInUser(AccountSummarySearchLoadTest.class, false,
+                STUDY_COORDINATOR);
+        admin.getClient(OrganizationsApi.class).addMember(ORG_ID_1, studyCoordinator.getUserId()).execute();
+
+        // Account i has the data groups in the bits of i % 8, language i % 3, and is enrolled in study1 or study2 by
+        // i % 2. One in ten is withdrawn.
+        ParticipantsApi participantsApi = admin.getClient(ParticipantsApi.class);
+        StudiesApi studiesApi = admin.getClient(StudiesApi.class);
+        LoadTestRunner runner = new LoadTestRunner(CONCURRENCY);
+        List<Integer> indices = IntStream.range(0, ACCOUNTS).boxed().collect(Collectors.toList());
+        int failures = runner.forEach(indices, (i, iteration) -> {
+            List<String> dataGroups = new ArrayList<>();
+            for (int bit = 0; bit < DATA_GROUPS.size(); bit++) {
+                if ((i % 8 & (1 << bit)) != 0) {
+                    dataGroups.add(DATA_GROUPS.get(bit));
+                }
+            }
+            String studyId = (i % 2 == 0) ? STUDY_ID_1 : STUDY_ID_2;
+            SignUp signUp = new SignUp().email(emailPrefix + i + "@sagebase.org")
+                    .dataGroups(dataGroups)
+                    .languages(ImmutableList.of(LANGUAGES.get(i % LANGUAGES.size())))
+                    .attributes(ImmutableMap.of("can_be_recontacted", String.valueOf(i % 4 == 0)))
+                    .externalIds(ImmutableMap.of(studyId, externalIdPrefix + i));
+            String userId = runner.getRecorder().time("createParticipant",
+                    () -> participantsApi.createParticipant(signUp).execute().body().getIdentifier());
+            if (i % 10 == 0) {
+                runner.getRecorder().time("withdrawParticipant",
+                        () -> studiesApi.withdrawParticipant(studyId, userId, "load test").execute());
+            }
+        });
+        runner.getRecorder().logSummary(LOG);
+        assertEquals(0, failures);
+    }
+
+    @AfterClass
+    public static void afterClass() throws Exception {
+        if (emailPrefix != null) {
+            new TestAccountCleaner(admin).deleteAccounts(emailPrefix);
+        }
+        if (researcher != null) {
+            researcher.signOutAndDeleteUser();
+        }
+        if (studyCoordinator != null) {
+            studyCoordinator.signOutAndDeleteUser();
+        }
+    }
+
+    @Test
+    public void filterCombinations() throws Exception {
+        List<Filter> filters = ImmutableList.of(
+                new Filter("language", search -> search.language("fr")),
+                new Filter("allOfGroups", search -> search.allOfGroups(ImmutableList.of("sdk-int-1"))),
+                new Filter("noneOfGroups", search -> search.noneOfGroups(ImmutableList.of("group1"))),
+                new Filter("externalIdFilter", search -> search.externalIdFilter(externalIdPrefix)),
+                // None of the seeded accounts has a role, so this matches nothing. It times the admin-only query.
+                new Filter("adminOnly", search -> search.adminOnly(true)),
+                new Filter("predicate=OR", search -> search.predicate(OR)));
+
+        ParticipantsApi participantsApi = researcher.getClient(ParticipantsApi.class);
+        LatencyRecorder recorder = new LatencyRecorder();
+        for (int mask = 0; mask < (1 << filters.size()); mask++) {
+            List<String> names = new ArrayList<>();
+            AccountSummarySearch search = makeSearch();
+            for (int i = 0; i < filters.size(); i++) {
+                if ((mask & (1 << i)) != 0) {
+                    names.add(filters.get(i).name);
+                    filters.get(i).apply.accept(search);
+                }
+            }
+            String name = "searchAccountSummaries " + (names.isEmpty() ? "emailFilter only" : String.join(" + ",
+                    names));
+            int total = 0;
+            for (int i = 0; i < ITERATIONS; i++) {
+                total = recorder.time(name, () -> participantsApi.searchAccountSummaries(search).execute().body()
+                        .getTotal());
+            }
+            if (mask == 0) {
+                assertEquals(ACCOUNTS, total);
+            }
+            LOG.info("{}: {} accounts", name, total);
+        }
+        recorder.logSummary(LOG);
+    }
+
+    @Test
+    public void studyParticipantsByEnrollment() throws Exception {
+        StudyParticipantsApi studyParticipantsApi = studyCoordinator.getClient(StudyParticipantsApi.class);
+        LatencyRecorder recorder = new LatencyRecorder();
+        for (EnrollmentFilter enrollment : new EnrollmentFilter[] { null, ENROLLED, WITHDRAWN }) {
+            for (boolean withGroups : new boolean[] { false, true }) {
+                AccountSummarySearch search = makeSearch().enrollment(enrollment);
+                if (withGroups) {
+                    search.allOfGroups(ImmutableList.of("sdk-int-1"));
+                }
+                String name = String.format("getStudyParticipants enrollment=%s%s", enrollment,
+                        withGroups ? " + allOfGroups" : "");
+                for (int i = 0; i < ITERATIONS; i++) {
+                    recorder.time(name, () -> studyParticipantsApi.getStudyParticipants(STUDY_ID_1, search).execute());
+                }
+            }
+        }
+        recorder.logSummary(LOG);
+    }
+
+    /** A page deep into the results should cost about the same as the first page. */
+    @Test
+    public void deepPaging() throws Exception {
+        ParticipantsApi participantsApi = researcher.getClient(ParticipantsApi.class);
+        LatencyRecorder recorder = new LatencyRecorder();
+        int lastOffset = Math.max(0, ACCOUNTS - PAGE_SIZE);
+        for (int percent : new int[] { 0, 10, 25, 50, 75, 100 }) {
+            int offset = lastOffset * percent / 100;
+            AccountSummarySearch search = makeSearch().pageSize(PAGE_SIZE).offsetBy(offset);
+            for (int i = 0; i < ITERATIONS; i++) {
+                int count = recorder.time(String.format("searchAccountSummaries offsetBy at %3d%%", percent),
+                        () -> participantsApi.searchAccountSummaries(search).execute().body().getItems().size());
+                assertEquals(Math.min(PAGE_SIZE, ACCOUNTS - offset), count);
+            }
+        }
+        recorder.logSummary(LOG);
+    }
+
+    private static AccountSummarySearch makeSearch() {
+        return new AccountSummarySearch().emailFilter(emailPrefix);
+    }
+}
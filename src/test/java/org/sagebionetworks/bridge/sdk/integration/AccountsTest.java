@@ -26,6 +26,7 @@ import org.joda.time.LocalDate;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.junit.experimental.categories.Category;
 
 import org.sagebionetworks.bridge.rest.RestUtils;
 import org.sagebionetworks.bridge.rest.api.AccountsApi;
@@ -62,6 +63,7 @@ import org.sagebionetworks.bridge.user.TestUser;
 import org.sagebionetworks.bridge.user.TestUserHelper;
 import org.sagebionetworks.bridge.util.IntegTestUtils;
 
+@Category(SerialTest.class)
 public class AccountsTest {
     private static final LocalDate REPORT_DATE = LocalDate.parse("2000-01-01");
     private static final String REPORT_ID = "accounts-test-report";
@@ -25,6 +25,7 @@ import org.joda.time.Period;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.junit.experimental.categories.Category;
 
 import org.sagebionetworks.bridge.rest.api.ForConsentedUsersApi;
 import org.sagebionetworks.bridge.rest.api.ForDevelopersApi;
@@ -38,6 +39,7 @@ import org.sagebionetworks.bridge.rest.model.StudyParticipant;
 import org.sagebionetworks.bridge.user.TestUser;
 import org.sagebionetworks.bridge.user.TestUserHelper;
 
+@Category(SerialTest.class)
 public class ActivityEventTest {
     private static final String TWO_WEEKS_AFTER_KEY = "2-weeks-after";
     private static final String TWO_WEEKS_AFTER_VALUE = "enrollment:P2W";
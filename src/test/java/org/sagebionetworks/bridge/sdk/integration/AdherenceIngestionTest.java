@@ -0,0 +1,162 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.api.ForConsentedUsersApi;
+import org.sagebionetworks.bridge.rest.api.ForStudyCoordinatorsApi;
+import org.sagebionetworks.bridge.rest.api.StudyAdherenceApi;
+import org.sagebionetworks.bridge.rest.api.StudyParticipantsApi;
+import org.sagebionetworks.bridge.rest.model.AdherenceRecord;
+import org.sagebionetworks.bridge.rest.model.AdherenceRecordList;
+import org.sagebionetworks.bridge.rest.model.AdherenceRecordUpdates;
+import org.sagebionetworks.bridge.rest.model.AdherenceRecordsSearch;
+import org.sagebionetworks.bridge.rest.model.AdherenceReportSearch;
+import org.sagebionetworks.bridge.user.TestUser;
+
+/**
+ * Simulates a study whose participants all sync at once. In each round, every participant submits a batch of
+ * adherence records with updateAdherenceRecords, concurrently. After each round, a sample of participants is used to
+ * time paged record searches for each page size and the event stream, weekly and detailed adherence reports, so the
+ * log shows how each degrades as records accumulate. Size the run with -Dload.users, -Dload.concurrency,
+ * -Dload.batchSize, -Dload.rounds, -Dload.sampleUsers and -Dload.pageSizes (comma-separated).
+ */
+@Category(LoadTest.class)
+public class AdherenceIngestionTest {
+    private static final Logger LOG = LoggerFactory.getLogger(AdherenceIngestionTest.class);
+
+    private static final int USERS = Integer.getInteger("load.users", 100);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 20);
+    private static final int BATCH_SIZE = Integer.getInteger("load.batchSize", 50);
+    private static final int ROUNDS = Integer.getInteger("load.rounds", 4);
+    private static final int SAMPLE_USERS = Integer.getInteger("load.sampleUsers", 10);
+    private static final List<Integer> PAGE_SIZES = LoadTestRunner.intListProperty("load.pageSizes", "10,50,100");
+    // A session every day with four windows: 8 instances (sessions and assessments) per participant per day.
+    private static final String DURATION = "P26W";
+    private static final int TIME_WINDOWS = 4;
+
+    private static class Participant {
+        final TestUser user;
+        final DateTime enrollment;
+
+        Participant(TestUser user, DateTime enrollment) {
+            this.user = user;
+            this.enrollment = enrollment;
+        }
+    }
+
+    private static AdherenceLoadFixture fixture;
+    private static List<Participant> participants;
+    private static List<String> instanceGuids;
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        fixture = new AdherenceLoadFixture(AdherenceIngestionTest.class, DURATION, TIME_WINDOWS);
+        LoadTestRunner runner = new LoadTestRunner(CONCURRENCY);
+        participants = runner.createUsers(USERS, () -> {
+            TestUser user = fixture.enroll();
+            return new Participant(user, fixture.getEnrollment(user));
+        });
+        assertEquals(USERS, participants.size());
+        instanceGuids = fixture.getInstanceGuids(participants.get(0).user);
+    }
+
+    @AfterClass
+    public static void afterClass() throws Exception {
+        if (participants != null) {
+            new LoadTestRunner(CONCURRENCY).forEach(participants, (p, i) -> p.user.signOutAndDeleteUser());
+        }
+        if (fixture != null) {
+            fixture.delete();
+        }
+    }
+
+    @Test
+    public void ingestion() throws Exception {
+        int rounds = Math.min(ROUNDS, instanceGuids.size() / BATCH_SIZE);
+        if (rounds < ROUNDS) {
+            LOG.warn("The timeline has {} instances, enough for only {} rounds of {}", instanceGuids.size(), rounds,
+                    BATCH_SIZE);
+        }
+        List<Participant> sample = participants.subList(0, Math.min(SAMPLE_USERS, participants.size()));
+        LatencyRecorder recorder = new LatencyRecorder();
+
+        for (int round = 0; round < rounds; round++) {
+            List<String> batch = instanceGuids.subList(round * BATCH_SIZE, (round + 1) * BATCH_SIZE);
+            int recordsPerUser = (round + 1) * BATCH_SIZE;
+            String prefix = String.format("%06d records/user ", recordsPerUser);
+
+            LoadTestRunner runner = new LoadTestRunner(CONCURRENCY);
+            long start = System.nanoTime();
+            int failures = runner.forEach(participants, (p, i) -> {
+                AdherenceRecordUpdates updates = new AdherenceRecordUpdates();
+                DateTime now = DateTime.now(DateTimeZone.UTC);
+                for (String instanceGuid : batch) {
+                    updates.addRecordsItem(new AdherenceRecord().instanceGuid(instanceGuid)
+                            .eventTimestamp(p.enrollment).startedOn(now).finishedOn(now));
+                }
+                recorder.time(prefix + "updateAdherenceRecords batch=" + BATCH_SIZE, () -> p.user
+                        .getClient(ForConsentedUsersApi.class).updateAdherenceRecords(fixture.getStudyId(), updates)
+                        .execute());
+            });
+            double seconds = (System.nanoTime() - start) / (double) TimeUnit.SECONDS.toNanos(1);
+            LOG.info("Round {}: {} records from {} participants in {} s ({} records/s), {} failed batches",
+                    round + 1, participants.size() * BATCH_SIZE, participants.size(), String.format("%.1f", seconds),
+                    String.format("%.0f", participants.size() * BATCH_SIZE / seconds), failures);
+            assertEquals(0, failures);
+
+            for (Participant p : sample) {
+                for (int pageSize : PAGE_SIZES) {
+                    int total = search(p.user, pageSize, prefix + "searchForAdherenceRecords pageSize=" + pageSize,
+                            recorder);
+                    assertEquals(recordsPerUser, total);
+                }
+                timeReports(p.user, prefix, recorder);
+            }
+            StudyAdherenceApi adherenceApi = fixture.getStaff().getClient(StudyAdherenceApi.class);
+            recorder.time(prefix + "getWeeklyAdherenceReports",
+                    () -> adherenceApi.getWeeklyAdherenceReports(fixture.getStudyId(), new AdherenceReportSearch())
+                            .execute());
+        }
+        recorder.logSummary(LOG);
+    }
+
+    // Pages through all of the participant's records and returns how many there were.
+    private static int search(TestUser user, int pageSize, String name, LatencyRecorder recorder) throws Exception {
+        ForConsentedUsersApi usersApi = user.getClient(ForConsentedUsersApi.class);
+        int count = 0;
+        AdherenceRecordList page;
+        do {
+            AdherenceRecordsSearch search = new AdherenceRecordsSearch().pageSize(pageSize).offsetBy(count);
+            page = recorder.time(name,
+                    () -> usersApi.searchForAdherenceRecords(fixture.getStudyId(), search).execute().body());
+            count += page.getItems().size();
+        } while (!page.getItems().isEmpty() && count < page.getTotal());
+        return count;
+    }
+
+    private static void timeReports(TestUser user, String prefix, LatencyRecorder recorder) throws Exception {
+        String studyId = fixture.getStudyId();
+        ForConsentedUsersApi usersApi = user.getClient(ForConsentedUsersApi.class);
+        StudyParticipantsApi participantsApi = fixture.getStaff().getClient(StudyParticipantsApi.class);
+        ForStudyCoordinatorsApi coordApi = fixture.getStaff().getClient(ForStudyCoordinatorsApi.class);
+
+        recorder.time(prefix + "eventStreamAdherenceReport", () -> usersApi
+                .getUsersStudyParticipantEventStreamAdherenceReport(studyId, DateTime.now(), false).execute());
+        recorder.time(prefix + "weeklyAdherenceReport",
+                () -> participantsApi.getWeeklyAdherenceReport(studyId, user.getUserId()).execute());
+        recorder.time(prefix + "detailedAdherenceReport",
+                () -> coordApi.getDetailedParticipantAdherenceReport(studyId, user.getUserId()).execute());
+    }
+}
@@ -0,0 +1,152 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static org.sagebionetworks.bridge.rest.model.ActivityEventUpdateType.MUTABLE;
+import static org.sagebionetworks.bridge.rest.model.PerformanceOrder.SEQUENTIAL;
+import static org.sagebionetworks.bridge.rest.model.Role.DEVELOPER;
+import static org.sagebionetworks.bridge.rest.model.Role.STUDY_COORDINATOR;
+import static org.sagebionetworks.bridge.rest.model.Role.STUDY_DESIGNER;
+import static org.sagebionetworks.bridge.util.IntegTestUtils.TEST_APP_ID;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.joda.time.DateTime;
+
+import org.sagebionetworks.bridge.rest.api.AssessmentsApi;
+import org.sagebionetworks.bridge.rest.api.ForAdminsApi;
+import org.sagebionetworks.bridge.rest.api.ForConsentedUsersApi;
+import org.sagebionetworks.bridge.rest.api.SchedulesV2Api;
+import org.sagebionetworks.bridge.rest.api.StudiesApi;
+import org.sagebionetworks.bridge.rest.model.Assessment;
+import org.sagebionetworks.bridge.rest.model.AssessmentReference2;
+import org.sagebionetworks.bridge.rest.model.Enrollment;
+import org.sagebionetworks.bridge.rest.model.Schedule2;
+import org.sagebionetworks.bridge.rest.model.ScheduledAssessment;
+import org.sagebionetworks.bridge.rest.model.ScheduledSession;
+import org.sagebionetworks.bridge.rest.model.Session;
+import org.sagebionetworks.bridge.rest.model.Study;
+import org.sagebionetworks.bridge.rest.model.StudyActivityEvent;
+import org.sagebionetworks.bridge.rest.model.StudyBurst;
+import org.sagebionetworks.bridge.rest.model.TimeWindow;
+import org.sagebionetworks.bridge.rest.model.Timeline;
+import org.sagebionetworks.bridge.user.TestUser;
+import org.sagebionetworks.bridge.user.TestUserHelper;
+
+/**
+ * A throwaway study for adherence load tests: one assessment, and a schedule with a daily session starting at
+ * enrollment, with the given number of time windows, over the given duration. The schedule also has an empty study
+ * burst started by {@link #BURST_EVENT_ID}. Participants are enrolled with {@link #enroll()}. {@link #delete()}
+ * removes everything, including the study.
+ */
+class AdherenceLoadFixture {
+    /** The custom event that starts the schedule's study burst. */
+    static final String BURST_EVENT_ID = "custom:event1";
+    private static final String BURST_ID = "burst1";
+
+    private final Class<?> testClass;
+    private final TestUser admin;
+    private final TestUser staff;
+    private final Study study;
+    private final Assessment assessment;
+    private final Schedule2 schedule;
+    private Timeline timeline;
+
+    AdherenceLoadFixture(Class<?> testClass, String duration, int timeWindows) throws Exception {
+        this.testClass = testClass;
+        admin = TestUserHelper.getSignedInAdmin();
+        staff = TestUserHelper.createAndSignInUser(testClass, false, DEVELOPER, STUDY_DESIGNER, STUDY_COORDINATOR);
+
+        // Created by the staff member, so their organization sponsors it and they can see its reports.
+        String studyId = Tests.randomIdentifier(testClass);
+        StudiesApi studiesApi = staff.getClient(StudiesApi.class);
+        studiesApi.createStudy(new Study().identifier(studyId).name(studyId)).execute();
+        study = studiesApi.getStudy(studyId).execute().body();
+
+        Assessment asmt = new Assessment()
+                .phase(Assessment.PhaseEnum.DRAFT)
+                .identifier(Tests.randomIdentifier(testClass))
+                .osName("Universal")
+                .ownerId(staff.getSession().getOrgMembership())
+                .title("Adherence Load Assessment");
+        assessment = staff.getClient(AssessmentsApi.class).createAssessment(asmt).execute().body();
+
+        Session session = new Session()
+                .name("Daily Session")
+                .addStartEventIdsItem("enrollment")
+                .interval("P1D")
+                .performanceOrder(SEQUENTIAL)
+                .addAssessmentsItem(new AssessmentReference2().appId(TEST_APP_ID)
+                        .identifier(assessment.getIdentifier()).guid(assessment.getGuid()));
+        for (int i = 0; i < timeWindows; i++) {
+            session.addTimeWindowsItem(new TimeWindow().startTime(String.format("%02d:00", i * 24 / timeWindows))
+                    .expiration("PT" + (24 / timeWindows) + "H"));
+        }
+        // No session is in the burst, so it doesn't change the timeline. It's there so that updating the burst's
+        // origin event raises a study burst change alert.
+        StudyBurst burst = new StudyBurst().identifier(BURST_ID).originEventId(BURST_EVENT_ID).interval("P1D")
+                .occurrences(4).updateType(MUTABLE);
+        Schedule2 sched = new Schedule2().name("Adherence Load Schedule").duration(duration).addSessionsItem(session)
+                .addStudyBurstsItem(burst);
+        schedule = staff.getClient(SchedulesV2Api.class).saveScheduleForStudy(studyId, sched).execute().body();
+    }
+
+    String getStudyId() {
+        return study.getIdentifier();
+    }
+
+    /** A developer, study designer and study coordinator with access to the study's reports. */
+    TestUser getStaff() {
+        return staff;
+    }
+
+    /** Creates a participant, enrolls them in the study, and signs them in again so the session shows it. */
+    TestUser enroll() throws Exception {
+        TestUser user = TestUserHelper.createAndSignInUser(testClass, true);
+        admin.getClient(ForAdminsApi.class).enrollParticipant(getStudyId(), new Enrollment().userId(user.getUserId()))
+                .execute();
+        user.signInAgain();
+        return user;
+    }
+
+    /** The study's timeline. It's the same for every participant. */
+    synchronized Timeline getTimeline(TestUser user) throws Exception {
+        if (timeline == null) {
+            timeline = user.getClient(ForConsentedUsersApi.class).getTimelineForSelf(getStudyId(), null).execute()
+                    .body();
+        }
+        return timeline;
+    }
+
+    /**
+     * The instance GUID of every session and assessment in the timeline, in timeline order. Each session is followed
+     * by its assessments.
+     */
+    List<String> getInstanceGuids(TestUser user) throws Exception {
+        List<String> guids = new ArrayList<>();
+        for (ScheduledSession session : getTimeline(user).getSchedule()) {
+            guids.add(session.getInstanceGuid());
+            for (ScheduledAssessment asmt : session.getAssessments()) {
+                guids.add(asmt.getInstanceGuid());
+            }
+        }
+        return guids;
+    }
+
+    /** The participant's enrollment timestamp, which is the event timestamp of everything in the schedule. */
+    DateTime getEnrollment(TestUser user) throws Exception {
+        for (StudyActivityEvent event : user.getClient(ForConsentedUsersApi.class)
+                .getStudyActivityEvents(getStudyId()).execute().body().getItems()) {
+            if ("enrollment".equals(event.getEventId())) {
+                return event.getTimestamp();
+            }
+        }
+        throw new IllegalStateException("Participant " + user.getUserId() + " has no enrollment event");
+    }
+
+    void delete() throws Exception {
+        admin.getClient(SchedulesV2Api.class).deleteSchedule(schedule.getGuid()).execute();
+        admin.getClient(AssessmentsApi.class).deleteAssessment(assessment.getGuid(), true).execute();
+        admin.getClient(ForAdminsApi.class).deleteStudy(getStudyId(), true).execute();
+        staff.signOutAndDeleteUser();
+    }
+}
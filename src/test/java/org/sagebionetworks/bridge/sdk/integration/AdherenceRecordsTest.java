@@ -37,6 +37,7 @@ import org.joda.time.DateTimeZone;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.junit.experimental.categories.Category;
 
 import org.sagebionetworks.bridge.rest.RestUtils;
 import org.sagebionetworks.bridge.rest.api.AssessmentsApi;
@@ -87,6 +88,7 @@ import org.sagebionetworks.bridge.user.TestUserHelper;
  * @see https://developer.sagebridge.org/articles/v2/scheduling.html
  */
 @SuppressWarnings({ "unchecked", "UnnecessaryLocalVariable" })
+@Category(SerialTest.class)
 public class AdherenceRecordsTest {
     private static final String DUMMY_UPLOAD_ID_1 = "dummy-upload-id-1";
     private static final String DUMMY_UPLOAD_ID_2 = "dummy-upload-id-2";
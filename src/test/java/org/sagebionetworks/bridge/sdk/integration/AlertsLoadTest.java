@@ -0,0 +1,236 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static org.junit.Assert.assertEquals;
+import static org.sagebionetworks.bridge.rest.model.Role.RESEARCHER;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.ImmutableList;
+import org.joda.time.DateTime;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.api.AlertsApi;
+import org.sagebionetworks.bridge.rest.api.ForAdminsApi;
+import org.sagebionetworks.bridge.rest.api.ForConsentedUsersApi;
+import org.sagebionetworks.bridge.rest.api.ForWorkersApi;
+import org.sagebionetworks.bridge.rest.api.StudiesApi;
+import org.sagebionetworks.bridge.rest.model.Alert;
+import org.sagebionetworks.bridge.rest.model.AlertCategoryAndCount;
+import org.sagebionetworks.bridge.rest.model.AlertFilter;
+import org.sagebionetworks.bridge.rest.model.AlertFilter.AlertCategoriesEnum;
+import org.sagebionetworks.bridge.rest.model.AlertIdCollection;
+import org.sagebionetworks.bridge.rest.model.AlertList;
+import org.sagebionetworks.bridge.rest.model.Enrollment;
+import org.sagebionetworks.bridge.rest.model.Study;
+import org.sagebionetworks.bridge.rest.model.StudyActivityEventRequest;
+import org.sagebionetworks.bridge.user.TestUser;
+import org.sagebionetworks.bridge.user.TestUserHelper;
+
+/**
+ * Load version of {@link AlertsTest}, in a study of its own. The four alert categories are raised in turn for every
+ * participant at once: new enrollment (enrollParticipant), timeline accessed (getTimelineForSelf), low adherence (a
+ * worker reads the weekly adherence report of a participant who has done nothing) and study burst change (the
+ * participant updates the burst's origin event). While each category is being raised, a researcher reads the alerts
+ * inbox page by page, and the time from each triggering call returning to that participant's alert showing up is
+ * recorded as "visible". The inbox is scanned every quarter second, so the delay is only as precise as one scan
+ * plus that pause.
+ *
+ * <p>After each category, with the alert volume growing by one alert per participant, the inbox calls are timed: the
+ * first page, the last page, a page filtered by the category, category counts, and marking a page of alerts read and
+ * unread. Size the run with -Dload.users, -Dload.concurrency and -Dload.iterations; -Dload.visibleTimeoutSeconds is how
+ * long to wait for alerts to show up.</p>
+ */
+@Category(LoadTest.class)
+public class AlertsLoadTest {
+    private static final Logger LOG = LoggerFactory.getLogger(AlertsLoadTest.class);
+
+    private static final int USERS = Integer.getInteger("load.users", 500);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 20);
+    private static final int ITERATIONS = Integer.getInteger("load.iterations", 5);
+    private static final int VISIBLE_TIMEOUT_SECONDS = Integer.getInteger("load.visibleTimeoutSeconds", 120);
+    private static final int PAGE_SIZE = 100;
+    // Pause between inbox scans, so the reader doesn't flood getAlerts while the triggers are being timed.
+    private static final long SCAN_INTERVAL_MILLIS = 250;
+
+    private static AdherenceLoadFixture fixture;
+    private static TestUser admin;
+    private static TestUser researcher;
+    private static List<TestUser> users;
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        admin = TestUserHelper.getSignedInAdmin();
+        fixture = new AdherenceLoadFixture(AlertsLoadTest.class, "P4W", 1);
+        researcher = TestUserHelper.createAndSignInUser(AlertsLoadTest.class, false, RESEARCHER);
+
+        // With nothing done yet, every participant is below the threshold.
+        StudiesApi studiesApi = fixture.getStaff().getClient(StudiesApi.class);
+        Study study = studiesApi.getStudy(fixture.getStudyId()).execute().body();
+        study.setAdherenceThresholdPercentage(60);
+        studiesApi.updateStudy(fixture.getStudyId(), study).execute();
+
+        // Not enrolled yet. Enrolling them is the first trigger.
+        users = new LoadTestRunner(CONCURRENCY).createUsers(USERS,
+                () -> TestUserHelper.createAndSignInUser(AlertsLoadTest.class, true));
+    }
+
+    @AfterClass
+    public static void afterClass() throws Exception {
+        if (researcher != null) {
+            deleteAlerts();
+            researcher.signOutAndDeleteUser();
+        }
+        if (users != null) {
+            new LoadTestRunner(CONCURRENCY).forEach(users, (user, i) -> user.signOutAndDeleteUser());
+        }
+        if (fixture != null) {
+            fixture.delete();
+        }
+    }
+
+    @Test
+    public void alertFanOut() throws Exception {
+        String studyId = fixture.getStudyId();
+        LatencyRecorder recorder = new LatencyRecorder();
+
+        raise(AlertCategoriesEnum.NEW_ENROLLMENT, recorder, user -> {
+            admin.getClient(ForAdminsApi.class).enrollParticipant(studyId, new Enrollment().userId(user.getUserId()))
+                    .execute();
+        });
+        // So that the participants' sessions include the study.
+        new LoadTestRunner(CONCURRENCY).forEach(users, (user, i) -> user.signInAgain());
+
+        raise(AlertCategoriesEnum.TIMELINE_ACCESSED, recorder,
+                user -> user.getClient(ForConsentedUsersApi.class).getTimelineForSelf(studyId, null).execute());
+        raise(AlertCategoriesEnum.LOW_ADHERENCE, recorder,
+                user -> admin.getClient(ForWorkersApi.class).getWeeklyAdherenceReportForWorker(admin.getAppId(),
+                        studyId, user.getUserId()).execute());
+        raise(AlertCategoriesEnum.STUDY_BURST_CHANGE, recorder, user -> {
+            StudyActivityEventRequest request = new StudyActivityEventRequest()
+                    .eventId(AdherenceLoadFixture.BURST_EVENT_ID).timestamp(DateTime.now())
+                    .clientTimeZone("America/Los_Angeles");
+            user.getClient(ForConsentedUsersApi.class).createStudyActivityEvent(studyId, request, true, true)
+                    .execute();
+        });
+        recorder.logSummary(LOG);
+    }
+
+    @FunctionalInterface
+    private interface Trigger {
+        void run(TestUser user) throws Exception;
+    }
+
+    // Raises the category's alert for every participant while reading the inbox, then times the inbox calls.
+    private static void raise(AlertCategoriesEnum category, LatencyRecorder recorder, Trigger trigger)
+            throws Exception {
+        Map<String, Long> triggeredAt = new ConcurrentHashMap<>();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<Integer> triggers = executor.submit(() -> new LoadTestRunner(CONCURRENCY).forEach(users,
+                (user, i) -> {
+                    recorder.time(category + " trigger", () -> {
+                        trigger.run(user);
+                        return null;
+                    });
+                    triggeredAt.put(user.getUserId(), System.nanoTime());
+                }));
+
+        // When each participant's alert was first read from the inbox.
+        Map<String, Long> seenAt = new HashMap<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(VISIBLE_TIMEOUT_SECONDS);
+        AlertFilter filter = new AlertFilter().alertCategories(ImmutableList.of(category));
+        try {
+            while (seenAt.size() < users.size() && System.nanoTime() < deadline) {
+                if (triggers.isDone() && triggers.get() > 0) {
+                    // Some alerts will never show up; the trigger failures are reported below.
+                    break;
+                }
+                int offset = 0;
+                List<Alert> page;
+                do {
+                    page = getAlerts(filter, offset);
+                    long now = System.nanoTime();
+                    for (Alert alert : page) {
+                        seenAt.putIfAbsent(alert.getParticipant().getIdentifier(), now);
+                    }
+                    offset += page.size();
+                } while (page.size() == PAGE_SIZE);
+                if (seenAt.size() < users.size()) {
+                    Thread.sleep(SCAN_INTERVAL_MILLIS);
+                }
+            }
+            assertEquals(category + " trigger failures", 0, (int) triggers.get());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (Map.Entry<String, Long> entry : triggeredAt.entrySet()) {
+            Long seen = seenAt.get(entry.getKey());
+            if (seen != null) {
+                // Seen in a page read before the trigger call returned: visible immediately.
+                recorder.record(category + " visible", Math.max(0, seen - entry.getValue()), true);
+            }
+        }
+        LOG.info("{}: {} of {} alerts visible", category, seenAt.size(), users.size());
+        assertEquals(category + " alerts visible", users.size(), seenAt.size());
+
+        timeInbox(category, recorder);
+    }
+
+    private static void timeInbox(AlertCategoriesEnum category, LatencyRecorder recorder) throws Exception {
+        String studyId = fixture.getStudyId();
+        AlertsApi alertsApi = researcher.getClient(AlertsApi.class);
+        AlertFilter all = new AlertFilter().alertCategories(ImmutableList.of());
+        AlertFilter byCategory = new AlertFilter().alertCategories(ImmutableList.of(category));
+
+        int total = alertsApi.getAlertCategoriesAndCounts(studyId).execute().body().getAlertCategoriesAndCounts()
+                .stream().mapToInt(AlertCategoryAndCount::getCount).sum();
+        String prefix = String.format("%06d alerts ", total);
+        for (int i = 0; i < ITERATIONS; i++) {
+            List<String> alertIds = recorder.time(prefix + "getAlerts first page", () -> getAlerts(all, 0)).stream()
+                    .map(Alert::getId).collect(Collectors.toList());
+            recorder.time(prefix + "getAlerts last page", () -> getAlerts(all, Math.max(0, total - PAGE_SIZE)));
+            recorder.time(prefix + "getAlerts by category", () -> getAlerts(byCategory, 0));
+            recorder.time(prefix + "getAlertCategoriesAndCounts",
+                    () -> alertsApi.getAlertCategoriesAndCounts(studyId).execute());
+
+            AlertIdCollection ids = new AlertIdCollection().alertIds(alertIds);
+            recorder.time(prefix + "markAlertsRead page", () -> alertsApi.markAlertsRead(studyId, ids).execute());
+            recorder.time(prefix + "markAlertsUnread page",
+                    () -> alertsApi.markAlertsUnread(studyId, ids).execute());
+        }
+    }
+
+    private static List<Alert> getAlerts(AlertFilter filter, int offset) throws Exception {
+        AlertList alerts = researcher.getClient(AlertsApi.class)
+                .getAlerts(fixture.getStudyId(), filter, offset, PAGE_SIZE).execute().body();
+        return alerts.getItems();
+    }
+
+    private static void deleteAlerts() throws Exception {
+        AlertFilter all = new AlertFilter().alertCategories(ImmutableList.of());
+        List<Alert> alerts;
+        do {
+            alerts = getAlerts(all, 0);
+            List<String> ids = new ArrayList<>();
+            for (Alert alert : alerts) {
+                ids.add(alert.getId());
+            }
+            researcher.getClient(AlertsApi.class).deleteAlerts(fixture.getStudyId(),
+                    new AlertIdCollection().alertIds(ids)).execute();
+        } while (!alerts.isEmpty());
+    }
+}
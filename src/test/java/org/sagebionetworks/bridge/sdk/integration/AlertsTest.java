@@ -20,6 +20,7 @@ import org.joda.time.LocalDate;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.junit.experimental.categories.Category;
 import org.sagebionetworks.bridge.rest.ApiClientProvider;
 import org.sagebionetworks.bridge.rest.api.AlertsApi;
 import org.sagebionetworks.bridge.rest.api.AuthenticationApi;
@@ -68,6 +69,7 @@ import org.sagebionetworks.bridge.user.TestUserHelper;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 
+@Category(SerialTest.class)
 public class AlertsTest {
     private static final String CUSTOM_EVENT = "custom:event1";
     private static final String EXTERNAL_ID = "external-id";
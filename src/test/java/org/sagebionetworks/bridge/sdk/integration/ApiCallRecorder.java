@@ -0,0 +1,220 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+import retrofit2.Invocation;
+
+import org.sagebionetworks.bridge.json.DefaultObjectMapper;
+
+/**
+ * Records every call made over the shared OkHttp client: latency, HTTP status code, and request and response payload
+ * sizes. SDK calls are keyed by "Api.method" (e.g. "ForConsentedUsersApi.getTimelineForSelf"), which Retrofit tags
+ * each request with; other requests by HTTP method and path, with IDs replaced by "{id}". {@link SharedHttpClients}
+ * installs this as the innermost application interceptor of every client it builds, so calls on the shared client and
+ * on the SDK clients of users wrapped with Tests.instrument() are recorded without wrapping the clients themselves. At
+ * the end of the run, InitListener writes the results to a JSON report so they can be compared build over build.
+ *
+ * <p>A call is recorded when its response body is closed, so latency includes reading the body. The response size is
+ * the body bytes actually read (after gzip decoding), so chunked and gzipped responses are counted. The request size
+ * is the declared length of the request body; bodies that don't declare one are counted as unknown sizes rather than
+ * as 0 bytes.</p>
+ */
+public class ApiCallRecorder implements Interceptor {
+    /** Upper bounds of the latency histogram buckets, in milliseconds. The last bucket is everything above. */
+    static final long[] HISTOGRAM_BOUNDS_MILLIS = { 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000 };
+
+    // Status code recorded for calls that fail without an HTTP response (e.g. a timeout).
+    private static final int NO_RESPONSE = 0;
+    // Passed to record() when a request size isn't known.
+    static final long UNKNOWN_SIZE = -1;
+    // Path segments kept in the endpoint name of a request that isn't an SDK call. Anything else is an ID.
+    private static final Pattern RESOURCE_NAME = Pattern.compile("v\\d+|[a-z]+(-[a-z]+)*");
+
+    private final LatencyRecorder latencyRecorder = new LatencyRecorder();
+    private final Map<String, EndpointMetrics> metrics = new ConcurrentHashMap<>();
+
+    private static class EndpointMetrics {
+        final AtomicLongArray histogram = new AtomicLongArray(HISTOGRAM_BOUNDS_MILLIS.length + 1);
+        final Map<Integer, AtomicLong> statusCodes = new ConcurrentHashMap<>();
+        final AtomicLong requestBytes = new AtomicLong();
+        final AtomicLong responseBytes = new AtomicLong();
+        final AtomicLong unknownRequestSizes = new AtomicLong();
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        String endpoint = getEndpoint(request);
+        long requestBytes = contentLength(request.body());
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException | RuntimeException e) {
+            record(endpoint, System.nanoTime() - start, NO_RESPONSE, requestBytes, 0);
+            throw e;
+        }
+        if (response.body() == null) {
+            record(endpoint, System.nanoTime() - start, response.code(), requestBytes, 0);
+            return response;
+        }
+        return response.newBuilder().body(new RecordingBody(response.body(), endpoint, start, response.code(),
+                requestBytes)).build();
+    }
+
+    /**
+     * "Api.method" for an SDK call. For other requests, the HTTP method and path, with every segment that isn't a
+     * resource name (e.g. "participants") replaced by "{id}".
+     */
+    static String getEndpoint(Request request) {
+        Invocation invocation = request.tag(Invocation.class);
+        if (invocation != null) {
+            Method method = invocation.method();
+            return method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        }
+        StringBuilder builder = new StringBuilder(request.method()).append(' ');
+        for (String segment : request.url().pathSegments()) {
+            builder.append('/').append(RESOURCE_NAME.matcher(segment).matches() ? segment : "{id}");
+        }
+        return builder.toString();
+    }
+
+    /** Records a call. Pass {@link #UNKNOWN_SIZE} for a request size that isn't known. */
+    public void record(String endpoint, long elapsedNanos, int statusCode, long requestBytes, long responseBytes) {
+        latencyRecorder.record(endpoint, elapsedNanos, statusCode >= 200 && statusCode < 400);
+
+        EndpointMetrics endpointMetrics = metrics.computeIfAbsent(endpoint, key -> new EndpointMetrics());
+        long millis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        int bucket = 0;
+        while (bucket < HISTOGRAM_BOUNDS_MILLIS.length && millis > HISTOGRAM_BOUNDS_MILLIS[bucket]) {
+            bucket++;
+        }
+        endpointMetrics.histogram.incrementAndGet(bucket);
+        endpointMetrics.statusCodes.computeIfAbsent(statusCode, key -> new AtomicLong()).incrementAndGet();
+        if (requestBytes == UNKNOWN_SIZE) {
+            endpointMetrics.unknownRequestSizes.incrementAndGet();
+        } else {
+            endpointMetrics.requestBytes.addAndGet(requestBytes);
+        }
+        endpointMetrics.responseBytes.addAndGet(responseBytes);
+    }
+
+    public boolean isEmpty() {
+        return metrics.isEmpty();
+    }
+
+    public LatencyRecorder getLatencyRecorder() {
+        return latencyRecorder;
+    }
+
+    /** Writes one JSON object per endpoint, sorted by endpoint name. */
+    public void writeReport(File file) throws IOException {
+        ObjectNode report = DefaultObjectMapper.INSTANCE.createObjectNode();
+        ArrayNode bounds = report.putArray("histogramBoundsMillis");
+        for (long bound : HISTOGRAM_BOUNDS_MILLIS) {
+            bounds.add(bound);
+        }
+        ObjectNode endpoints = report.putObject("endpoints");
+        for (LatencyRecorder.Stats stats : latencyRecorder.getAllStats().values()) {
+            EndpointMetrics endpointMetrics = metrics.get(stats.getEndpoint());
+
+            ObjectNode node = endpoints.putObject(stats.getEndpoint());
+            node.put("count", stats.getCount());
+            node.put("errors", stats.getErrors());
+            node.put("p50Millis", stats.getP50());
+            node.put("p95Millis", stats.getP95());
+            node.put("p99Millis", stats.getP99());
+            node.put("maxMillis", stats.getMax());
+            ArrayNode histogram = node.putArray("histogram");
+            for (int i = 0; i < endpointMetrics.histogram.length(); i++) {
+                histogram.add(endpointMetrics.histogram.get(i));
+            }
+            ObjectNode statusCodes = node.putObject("statusCodes");
+            SortedMap<Integer, AtomicLong> sortedCodes = new TreeMap<>(endpointMetrics.statusCodes);
+            for (Map.Entry<Integer, AtomicLong> entry : sortedCodes.entrySet()) {
+                statusCodes.put(String.valueOf(entry.getKey()), entry.getValue().get());
+            }
+            node.put("requestBytes", endpointMetrics.requestBytes.get());
+            node.put("responseBytes", endpointMetrics.responseBytes.get());
+            node.put("unknownRequestSizes", endpointMetrics.unknownRequestSizes.get());
+        }
+        File dir = file.getAbsoluteFile().getParentFile();
+        if (dir != null && !dir.exists() && !dir.mkdirs()) {
+            throw new IOException("Could not create directory " + dir);
+        }
+        DefaultObjectMapper.INSTANCE.writerWithDefaultPrettyPrinter().writeValue(file, report);
+    }
+
+    // UNKNOWN_SIZE for a body that doesn't declare its length (e.g. a streamed upload).
+    private static long contentLength(RequestBody body) throws IOException {
+        return (body == null) ? 0 : body.contentLength();
+    }
+
+    // Counts the bytes read from a response body, and records the call when the body is closed.
+    private class RecordingBody extends ResponseBody {
+        private final ResponseBody body;
+        private final BufferedSource source;
+        private long bytesRead;
+        private boolean recorded;
+
+        RecordingBody(ResponseBody body, String endpoint, long start, int statusCode, long requestBytes) {
+            this.body = body;
+            this.source = Okio.buffer(new ForwardingSource(body.source()) {
+                @Override
+                public long read(Buffer sink, long byteCount) throws IOException {
+                    long read = super.read(sink, byteCount);
+                    if (read > 0) {
+                        bytesRead += read;
+                    }
+                    return read;
+                }
+
+                @Override
+                public void close() throws IOException {
+                    super.close();
+                    if (!recorded) {
+                        recorded = true;
+                        record(endpoint, System.nanoTime() - start, statusCode, requestBytes, bytesRead);
+                    }
+                }
+            });
+        }
+
+        @Override
+        public MediaType contentType() {
+            return body.contentType();
+        }
+
+        @Override
+        public long contentLength() {
+            return body.contentLength();
+        }
+
+        @Override
+        public BufferedSource source() {
+            return source;
+        }
+    }
+}
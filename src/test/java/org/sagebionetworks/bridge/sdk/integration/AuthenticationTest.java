@@ -55,7 +55,7 @@ import static org.sagebionetworks.bridge.util.IntegTestUtils.PHONE;
 import static org.sagebionetworks.bridge.util.IntegTestUtils.TEST_APP_2_ID;
 import static org.sagebionetworks.bridge.util.IntegTestUtils.TEST_APP_ID;
 
-@Category(IntegrationSmokeTest.class)
+@Category({IntegrationSmokeTest.class, SerialTest.class})
 @SuppressWarnings({ "ConstantConditions", "unchecked" })
 public class AuthenticationTest {
 
@@ -36,6 +36,7 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
+import org.junit.experimental.categories.Category;
 
 import org.sagebionetworks.bridge.rest.RestUtils;
 import org.sagebionetworks.bridge.rest.api.AppsApi;
@@ -63,6 +64,7 @@ import ca.uhn.fhir.parser.IParser;
  * These calls use HTTP Basic Authentication, so they're not done through our
  * SDK (which supports our custom header implementation).
  */
+@Category(SerialTest.class)
 public class CRCTest {
 
     static final LocalDate JAN1 = LocalDate.parse("1970-01-01");
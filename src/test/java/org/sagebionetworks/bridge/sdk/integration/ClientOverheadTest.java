@@ -0,0 +1,140 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+import static org.sagebionetworks.bridge.util.IntegTestUtils.TEST_APP_ID;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.fluent.Request;
+import org.apache.http.entity.ContentType;
+import org.apache.http.util.EntityUtils;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.config.Config;
+import org.sagebionetworks.bridge.json.DefaultObjectMapper;
+import org.sagebionetworks.bridge.rest.ApiClientProvider;
+import org.sagebionetworks.bridge.rest.RestUtils;
+import org.sagebionetworks.bridge.rest.api.AuthenticationApi;
+import org.sagebionetworks.bridge.rest.api.PublicApi;
+import org.sagebionetworks.bridge.rest.exceptions.EntityNotFoundException;
+import org.sagebionetworks.bridge.rest.model.AppConfig;
+import org.sagebionetworks.bridge.rest.model.SignIn;
+import org.sagebionetworks.bridge.rest.model.UserSessionInfo;
+
+/**
+ * Measures the client-side cost of SDK calls (serialization, connection handling) against the in-process
+ * {@link StubBridgeServer}, so there is no network or server time in the numbers. Each SDK call is compared against
+ * the same request made with the raw HTTP client. This test does not need a live Bridge environment.
+ */
+@Category(LoadTest.class)
+public class ClientOverheadTest {
+    private static final Logger LOG = LoggerFactory.getLogger(ClientOverheadTest.class);
+
+    private static final int ITERATIONS = Integer.getInteger("load.iterations", 500);
+    private static final int WARM_UP_ITERATIONS = 50;
+    private static final int CONFIG_ELEMENTS = 200;
+    private static final String EMAIL = "bridge-testing+stub@sagebase.org";
+
+    private static StubBridgeServer server;
+    private static ApiClientProvider provider;
+    private static SignIn signIn;
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        Config config = Tests.loadTestConfig();
+        server = new StubBridgeServer(Integer.parseInt(config.get("stub.server.port")));
+        server.addAccount(TEST_APP_ID, EMAIL, Tests.PASSWORD);
+        server.putAppConfig(TEST_APP_ID, makeAppConfig());
+
+        String userAgent = RestUtils.getUserAgent(Tests.getClientInfoWithVersion("Android", 20));
+        provider = new ApiClientProvider(server.getHostUrl(), userAgent, "en", TEST_APP_ID);
+        signIn = new SignIn().appId(TEST_APP_ID).email(EMAIL).password(Tests.PASSWORD);
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    @Test
+    public void signIn() throws Exception {
+        AuthenticationApi authApi = provider.getClient(AuthenticationApi.class);
+        String signInJson = "{\"appId\":\"" + TEST_APP_ID + "\",\"email\":\"" + EMAIL + "\",\"password\":\"" +
+                Tests.PASSWORD + "\"}";
+
+        LatencyRecorder recorder = new LatencyRecorder();
+        for (int i = 0; i < WARM_UP_ITERATIONS + ITERATIONS; i++) {
+            LatencyRecorder target = (i < WARM_UP_ITERATIONS) ? new LatencyRecorder() : recorder;
+
+            UserSessionInfo session = target.time("sdk signInV4",
+                    () -> authApi.signInV4(signIn).execute().body());
+            assertNotNull(session.getSessionToken());
+
+            HttpResponse response = target.time("raw signInV4",
+                    () -> Request.Post(server.getHostUrl() + "/v4/auth/signIn")
+                            .bodyString(signInJson, ContentType.APPLICATION_JSON).execute().returnResponse());
+            assertEquals(200, response.getStatusLine().getStatusCode());
+        }
+        recorder.logSummary(LOG);
+    }
+
+    @Test
+    public void getAppConfig() throws Exception {
+        PublicApi publicApi = provider.getClient(PublicApi.class);
+
+        LatencyRecorder recorder = new LatencyRecorder();
+        for (int i = 0; i < WARM_UP_ITERATIONS + ITERATIONS; i++) {
+            LatencyRecorder target = (i < WARM_UP_ITERATIONS) ? new LatencyRecorder() : recorder;
+
+            AppConfig appConfig = target.time("sdk getConfigForApp",
+                    () -> publicApi.getConfigForApp(TEST_APP_ID).execute().body());
+            assertEquals("Stub app config", appConfig.getLabel());
+
+            String json = target.time("raw getConfigForApp", () -> EntityUtils.toString(
+                    Request.Get(server.getHostUrl() + "/v1/apps/" + TEST_APP_ID + "/appconfig").execute()
+                            .returnResponse().getEntity()));
+            assertNotNull(json);
+        }
+        recorder.logSummary(LOG);
+    }
+
+    @Test
+    public void stubBehavesLikeServerOnBadCredentials() throws Exception {
+        AuthenticationApi authApi = provider.getClient(AuthenticationApi.class);
+        try {
+            authApi.signInV4(new SignIn().appId(TEST_APP_ID).email(EMAIL).password("bad password")).execute();
+            fail("expected exception");
+        } catch (EntityNotFoundException e) {
+            // expected exception
+        }
+    }
+
+    // An app config whose client data is large enough for deserialization to be a measurable part of the call.
+    private static ObjectNode makeAppConfig() {
+        ObjectNode appConfig = DefaultObjectMapper.INSTANCE.createObjectNode();
+        appConfig.put("label", "Stub app config");
+        appConfig.put("guid", "stub-app-config-guid");
+        appConfig.put("version", 1);
+        ObjectNode clientData = appConfig.putObject("clientData");
+        ArrayNode elements = clientData.putArray("elements");
+        for (int i = 0; i < CONFIG_ELEMENTS; i++) {
+            ObjectNode element = elements.addObject();
+            element.put("identifier", "element-" + i);
+            element.put("title", "Configuration element number " + i);
+            element.put("enabled", i % 2 == 0);
+            element.putArray("values").add(i).add(i * 2).add(i * 3);
+        }
+        appConfig.put("type", "AppConfig");
+        return appConfig;
+    }
+}
@@ -92,7 +92,7 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 
-@Category(IntegrationSmokeTest.class)
+@Category({IntegrationSmokeTest.class, SerialTest.class})
 @SuppressWarnings({ "ConstantConditions", "unchecked" })
 public class ConsentTest {
     private static final Withdrawal WITHDRAWAL = new Withdrawal().reason("Reasons");
@@ -0,0 +1,114 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.net.HttpHeaders;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * A client-side conditional-request cache. GET responses with an ETag are stored, keyed by URL and session token,
+ * and later GETs of the same URL send If-None-Match. When the server answers 304, the stored body is returned as if
+ * it had been sent again. Bridge sends ETags for the schedule, timeline and participant schedule APIs.
+ *
+ * <p>Add the cache to a user's clients with Tests.instrument(user, cache). It runs inside the SDK's own interceptors, so the SDK's converters, error handling and session
+ * renewal apply to cached clients just as they do to any other.</p>
+ */
+public class EtagCache implements Interceptor {
+    private static final String BRIDGE_SESSION = "Bridge-Session";
+
+    private static class Entry {
+        final String etag;
+        final byte[] body;
+        final MediaType contentType;
+
+        Entry(String etag, byte[] body, MediaType contentType) {
+            this.etag = etag;
+            this.body = body;
+            this.contentType = contentType;
+        }
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong notModified = new AtomicLong();
+    private final AtomicLong bytesSaved = new AtomicLong();
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if (!"GET".equals(request.method())) {
+            return chain.proceed(request);
+        }
+        String key = request.url() + " " + request.header(BRIDGE_SESSION);
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            request = request.newBuilder().header(HttpHeaders.IF_NONE_MATCH, entry.etag).build();
+        }
+        Response response = chain.proceed(request);
+
+        if (response.code() == 304 && entry != null) {
+            response.close();
+            notModified.incrementAndGet();
+            hits.incrementAndGet();
+            bytesSaved.addAndGet(entry.body.length);
+            return response.newBuilder().code(200).message("OK")
+                    .body(ResponseBody.create(entry.contentType, entry.body)).build();
+        }
+        if (response.code() == 304) {
+            // Someone else's If-None-Match. Nothing to serve it from.
+            notModified.incrementAndGet();
+            return response;
+        }
+        misses.incrementAndGet();
+        String etag = response.header(HttpHeaders.ETAG);
+        if (response.code() == 200 && etag != null && response.body() != null) {
+            ResponseBody body = response.body();
+            MediaType contentType = body.contentType();
+            byte[] bytes = body.bytes();
+            entries.put(key, new Entry(etag, bytes, contentType));
+            return response.newBuilder().body(ResponseBody.create(contentType, bytes)).build();
+        } else if (entry != null) {
+            // The cached body is no longer valid (e.g. the schedule was deleted).
+            entries.remove(key);
+        }
+        return response;
+    }
+
+    /** GETs answered from the cache after a 304. */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /** GETs that downloaded a full body, either because nothing was cached or because it had changed. */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /** 304 Not Modified responses received. */
+    public long getNotModified() {
+        return notModified.get();
+    }
+
+    /** Response body bytes not downloaded because of 304s. */
+    public long getBytesSaved() {
+        return bytesSaved.get();
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("EtagCache: hits=%d, misses=%d, notModified=%d, bytesSaved=%d", hits.get(),
+                misses.get(), notModified.get(), bytesSaved.get());
+    }
+}
@@ -0,0 +1,92 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static org.junit.Assert.assertEquals;
+import static org.sagebionetworks.bridge.rest.model.Role.STUDY_DESIGNER;
+import static org.sagebionetworks.bridge.sdk.integration.Tests.STUDY_ID_1;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.sagebionetworks.bridge.rest.api.ForConsentedUsersApi;
+import org.sagebionetworks.bridge.rest.api.ForStudyDesignersApi;
+import org.sagebionetworks.bridge.rest.api.SchedulesV2Api;
+import org.sagebionetworks.bridge.rest.api.StudiesApi;
+import org.sagebionetworks.bridge.rest.model.Schedule2;
+import org.sagebionetworks.bridge.rest.model.Study;
+import org.sagebionetworks.bridge.rest.model.Timeline;
+import org.sagebionetworks.bridge.user.TestUser;
+import org.sagebionetworks.bridge.user.TestUserHelper;
+
+import retrofit2.Response;
+
+@Category(SerialTest.class)
+public class EtagCacheTest {
+
+    TestUser admin;
+    TestUser studyDesigner;
+    TestUser user;
+    Schedule2 schedule;
+    EtagCache cache;
+
+    @Before
+    public void before() throws Exception {
+        admin = TestUserHelper.getSignedInAdmin();
+        user = TestUserHelper.createAndSignInUser(getClass(), true);
+        studyDesigner = TestUserHelper.createAndSignInUser(getClass(), false, STUDY_DESIGNER);
+        cache = new EtagCache();
+
+        // If there's a schedule associated to study 1, we need to delete it.
+        Study study = admin.getClient(StudiesApi.class).getStudy(STUDY_ID_1).execute().body();
+        if (study.getScheduleGuid() != null) {
+            admin.getClient(SchedulesV2Api.class).deleteSchedule(study.getScheduleGuid()).execute();
+        }
+    }
+
+    @After
+    public void after() throws Exception {
+        if (schedule != null && schedule.getGuid() != null) {
+            admin.getClient(SchedulesV2Api.class).deleteSchedule(schedule.getGuid()).execute();
+        }
+        if (user != null) {
+            user.signOutAndDeleteUser();
+        }
+        if (studyDesigner != null) {
+            studyDesigner.signOutAndDeleteUser();
+        }
+    }
+
+    @Test
+    public void cachesUntilScheduleChanges() throws Exception {
+        SchedulesV2Api schedulesApi = studyDesigner.getClient(SchedulesV2Api.class);
+        schedule = new Schedule2().name("Test Schedule [EtagCacheTest]").duration("P10W");
+        schedule = schedulesApi.saveScheduleForStudy(STUDY_ID_1, schedule).execute().body();
+
+        // First request downloads the timeline, the second is served from the cache.
+        ForConsentedUsersApi usersApi = Tests.instrument(user, cache).getClient(ForConsentedUsersApi.class);
+        Timeline timeline1 = usersApi.getTimelineForSelf(STUDY_ID_1, null).execute().body();
+        Timeline timeline2 = usersApi.getTimelineForSelf(STUDY_ID_1, null).execute().body();
+        assertEquals(timeline1, timeline2);
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getNotModified());
+
+        // Study designer's schedule is cached separately (different URL and session).
+        ForStudyDesignersApi designApi = Tests.instrument(studyDesigner, cache).getClient(ForStudyDesignersApi.class);
+        designApi.getScheduleForStudy(STUDY_ID_1).execute();
+        Response<Schedule2> res = designApi.getScheduleForStudy(STUDY_ID_1).execute();
+        assertEquals(200, res.code());
+        assertEquals(schedule.getGuid(), res.body().getGuid());
+        assertEquals(2, cache.getMisses());
+        assertEquals(2, cache.getHits());
+
+        // Changing the schedule busts the cache.
+        schedule.setDuration("P11D");
+        schedule = schedulesApi.saveScheduleForStudy(STUDY_ID_1, schedule).execute().body();
+        Timeline timeline3 = usersApi.getTimelineForSelf(STUDY_ID_1, null).execute().body();
+        assertEquals("P11D", timeline3.getDuration());
+        assertEquals(3, cache.getMisses());
+        assertEquals(2, cache.getHits());
+    }
+}
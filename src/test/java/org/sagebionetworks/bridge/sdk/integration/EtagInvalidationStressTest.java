@@ -0,0 +1,282 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.sagebionetworks.bridge.rest.model.Role.STUDY_DESIGNER;
+import static org.sagebionetworks.bridge.sdk.integration.Tests.STUDY_ID_1;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.net.HttpHeaders;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.RestUtils;
+import org.sagebionetworks.bridge.rest.api.ForStudyDesignersApi;
+import org.sagebionetworks.bridge.rest.api.SchedulesV2Api;
+import org.sagebionetworks.bridge.rest.api.StudiesApi;
+import org.sagebionetworks.bridge.rest.exceptions.ConcurrentModificationException;
+import org.sagebionetworks.bridge.rest.model.Schedule2;
+import org.sagebionetworks.bridge.rest.model.Study;
+import org.sagebionetworks.bridge.rest.model.Timeline;
+import org.sagebionetworks.bridge.user.TestUser;
+import org.sagebionetworks.bridge.user.TestUserHelper;
+
+/**
+ * Concurrent version of {@link EtagsTest}. Study designers repeatedly change study1's schedule while participants
+ * poll their timeline with If-None-Match. Every schedule version gets a unique duration, so each timeline response
+ * tells us which version the reader is seeing.
+ *
+ * <p>A 304 is stale if a newer version had already been saved (the save had returned) when the request was sent.
+ * Invalidation lag is the time from a save returning until every reader has seen that version or a later one; it
+ * includes up to one polling round trip. Size the run with -Dload.users (readers), -Dload.writers, -Dload.writes
+ * (saves per writer) and -Dload.writeIntervalMillis.</p>
+ */
+@Category(LoadTest.class)
+public class EtagInvalidationStressTest {
+    private static final Logger LOG = LoggerFactory.getLogger(EtagInvalidationStressTest.class);
+
+    private static final int READERS = Integer.getInteger("load.users", 20);
+    private static final int WRITERS = Integer.getInteger("load.writers", 2);
+    private static final int WRITES = Integer.getInteger("load.writes", 20);
+    private static final long WRITE_INTERVAL_MILLIS = Long.getLong("load.writeIntervalMillis", 1000L);
+    private static final long SETTLE_MILLIS = 5000L;
+    private static final String PARTICIPANT_SELF_TIMELINE_URL = "/v5/studies/" + STUDY_ID_1
+            + "/participants/self/timeline";
+
+    // A participant polling the timeline. Only its own thread touches etag and days; observations are read after
+    // the thread has finished.
+    private static class Reader {
+        final TestUser user;
+        // System.nanoTime() and duration in days of every timeline received.
+        final List<long[]> observations = new ArrayList<>();
+        String etag;
+        int days;
+
+        Reader(TestUser user) {
+            this.user = user;
+        }
+    }
+
+    private final LatencyRecorder recorder = new LatencyRecorder();
+    // Duration in days of each saved schedule -> version of that schedule.
+    private final Map<Integer, Long> versionsByDays = new ConcurrentHashMap<>();
+    // Version -> System.nanoTime() when the save returned.
+    private final Map<Long, Long> savedAt = new ConcurrentHashMap<>();
+    // Latest version whose save has returned.
+    private final AtomicLong latestVersion = new AtomicLong();
+    private final AtomicInteger nextDays = new AtomicInteger(7);
+    private final AtomicInteger conflicts = new AtomicInteger();
+    private final AtomicInteger stale304s = new AtomicInteger();
+    private final AtomicInteger stale200s = new AtomicInteger();
+
+    private TestUser admin;
+    private List<TestUser> designers;
+    private List<Reader> readers;
+    private Schedule2 schedule;
+    private String hostUrl;
+
+    @Before
+    public void before() throws Exception {
+        admin = TestUserHelper.getSignedInAdmin();
+        hostUrl = admin.getClientManager().getHostUrl();
+
+        Study study = admin.getClient(StudiesApi.class).getStudy(STUDY_ID_1).execute().body();
+        if (study.getScheduleGuid() != null) {
+            admin.getClient(SchedulesV2Api.class).deleteSchedule(study.getScheduleGuid()).execute();
+        }
+
+        LoadTestRunner runner = new LoadTestRunner(10);
+        designers = runner.createUsers(WRITERS,
+                () -> TestUserHelper.createAndSignInUser(EtagInvalidationStressTest.class, false, STUDY_DESIGNER));
+        readers = new ArrayList<>();
+        for (TestUser user : runner.createUsers(READERS,
+                () -> TestUserHelper.createAndSignInUser(EtagInvalidationStressTest.class, true))) {
+            readers.add(new Reader(user));
+        }
+        assertEquals(WRITERS, designers.size());
+        assertEquals(READERS, readers.size());
+
+        schedule = new Schedule2().name("Test Schedule [EtagInvalidationStressTest]")
+                .duration(duration(nextDays.getAndIncrement()));
+        schedule = designers.get(0).getClient(SchedulesV2Api.class).saveScheduleForStudy(STUDY_ID_1, schedule)
+                .execute().body();
+        saved(schedule);
+    }
+
+    @After
+    public void after() throws Exception {
+        if (schedule != null && schedule.getGuid() != null) {
+            admin.getClient(SchedulesV2Api.class).deleteSchedule(schedule.getGuid()).execute();
+        }
+        if (readers != null) {
+            for (Reader reader : readers) {
+                reader.user.signOutAndDeleteUser();
+            }
+        }
+        if (designers != null) {
+            for (TestUser designer : designers) {
+                designer.signOutAndDeleteUser();
+            }
+        }
+    }
+
+    @Test
+    public void invalidationUnderConcurrentWrites() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(READERS + WRITERS);
+        long deadline;
+        try {
+            List<Future<?>> writerFutures = new ArrayList<>();
+            for (TestUser designer : designers) {
+                writerFutures.add(executor.submit(() -> write(designer)));
+            }
+            // Readers stop once the writers are done and the last version has had time to reach everyone.
+            AtomicLong stopAt = new AtomicLong(Long.MAX_VALUE);
+            List<Future<?>> readerFutures = new ArrayList<>();
+            for (Reader reader : readers) {
+                readerFutures.add(executor.submit(() -> read(reader, stopAt)));
+            }
+            for (Future<?> future : writerFutures) {
+                future.get();
+            }
+            stopAt.set(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(SETTLE_MILLIS));
+            deadline = stopAt.get();
+            for (Future<?> future : readerFutures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        LatencyRecorder lagRecorder = new LatencyRecorder();
+        int neverSeen = 0;
+        for (Map.Entry<Long, Long> entry : savedAt.entrySet()) {
+            long version = entry.getKey();
+            long lag = 0;
+            for (Reader reader : readers) {
+                Long seenAt = firstSeen(reader, version);
+                if (seenAt == null) {
+                    neverSeen++;
+                    lag = deadline - entry.getValue();
+                    break;
+                }
+                lag = Math.max(lag, seenAt - entry.getValue());
+            }
+            lagRecorder.record("invalidation lag (all readers)", Math.max(lag, 0), true);
+        }
+        recorder.logSummary(LOG);
+        lagRecorder.logSummary(LOG);
+        LOG.info("{} versions saved, {} save conflicts, {} stale 304s, {} stale 200s, {} versions never seen by " +
+                "every reader", savedAt.size(), conflicts.get(), stale304s.get(), stale200s.get(), neverSeen);
+
+        assertEquals("stale 304s", 0, stale304s.get());
+        assertEquals("versions never seen by every reader", 0, neverSeen);
+        assertTrue(savedAt.size() > 1);
+    }
+
+    // Saves WRITES new versions of the schedule, each with a new duration. Designers race each other, so a save
+    // can fail on the schedule's version check; that counts as a conflict and is retried from a fresh copy.
+    private void write(TestUser designer) {
+        ForStudyDesignersApi designApi = designer.getClient(ForStudyDesignersApi.class);
+        SchedulesV2Api schedulesApi = designer.getClient(SchedulesV2Api.class);
+        int writes = 0;
+        while (writes < WRITES) {
+            try {
+                Schedule2 current = designApi.getScheduleForStudy(STUDY_ID_1).execute().body();
+                current.setDuration(duration(nextDays.getAndIncrement()));
+                Schedule2 updated = recorder.time("saveScheduleForStudy",
+                        () -> schedulesApi.saveScheduleForStudy(STUDY_ID_1, current).execute().body());
+                saved(updated);
+                writes++;
+                Thread.sleep(WRITE_INTERVAL_MILLIS);
+            } catch (ConcurrentModificationException e) {
+                conflicts.incrementAndGet();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                LOG.error("Could not save schedule", e);
+                return;
+            }
+        }
+    }
+
+    private void saved(Schedule2 saved) {
+        long now = System.nanoTime();
+        versionsByDays.put(days(saved.getDuration()), saved.getVersion());
+        savedAt.put(saved.getVersion(), now);
+        latestVersion.accumulateAndGet(saved.getVersion(), Math::max);
+    }
+
+    private void read(Reader reader, AtomicLong stopAt) {
+        while (System.nanoTime() < stopAt.get()) {
+            // Anything saved after this point may legitimately not be visible to this request.
+            long latestAtSend = latestVersion.get();
+            Request.Builder builder = new Request.Builder().url(hostUrl + PARTICIPANT_SELF_TIMELINE_URL)
+                    .header("Bridge-Session", reader.user.getSession().getSessionToken());
+            if (reader.etag != null) {
+                builder.header(HttpHeaders.IF_NONE_MATCH, reader.etag);
+            }
+            long start = System.nanoTime();
+            try (Response response = SharedHttpClients.getOkHttpClient().newCall(builder.build()).execute()) {
+                long end = System.nanoTime();
+                recorder.record("timeline " + response.code(), end - start, response.isSuccessful() ||
+                        response.code() == 304);
+                if (response.code() == 200) {
+                    Timeline timeline = RestUtils.GSON.fromJson(response.body().charStream(), Timeline.class);
+                    reader.etag = response.header(HttpHeaders.ETAG);
+                    reader.days = days(timeline.getDuration());
+                } else if (response.code() != 304) {
+                    continue;
+                }
+                // The map is filled in when a save returns, so a version that isn't in it yet is newer than
+                // anything saved before this request was sent.
+                Long version = versionsByDays.get(reader.days);
+                if (version != null && version < latestAtSend) {
+                    if (response.code() == 304) {
+                        stale304s.incrementAndGet();
+                    } else {
+                        stale200s.incrementAndGet();
+                    }
+                }
+                reader.observations.add(new long[] { end, reader.days });
+            } catch (Exception e) {
+                recorder.record("timeline error", System.nanoTime() - start, false);
+            }
+        }
+    }
+
+    // When this reader first received this version or a later one.
+    private Long firstSeen(Reader reader, long version) {
+        for (long[] observation : reader.observations) {
+            Long seen = versionsByDays.get((int) observation[1]);
+            if (seen != null && seen >= version) {
+                return observation[0];
+            }
+        }
+        return null;
+    }
+
+    private static String duration(int days) {
+        return "P" + days + "D";
+    }
+
+    private static int days(String duration) {
+        return Integer.parseInt(duration.substring(1, duration.length() - 1));
+    }
+}
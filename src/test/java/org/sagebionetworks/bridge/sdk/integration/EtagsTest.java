@@ -13,6 +13,7 @@ import org.apache.http.client.fluent.Request;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.junit.experimental.categories.Category;
 import org.sagebionetworks.bridge.rest.api.ForStudyDesignersApi;
 import org.sagebionetworks.bridge.rest.api.SchedulesV2Api;
 import org.sagebionetworks.bridge.rest.api.StudiesApi;
@@ -25,6 +26,7 @@ import com.google.common.net.HttpHeaders;
 
 import retrofit2.Response;
 
+@Category(SerialTest.class)
 public class EtagsTest {
 
     private static final String PARTICIPANT_SELF_TIMELINE_URL = "/v5/studies/"+STUDY_ID_1+"/participants/self/timeline";
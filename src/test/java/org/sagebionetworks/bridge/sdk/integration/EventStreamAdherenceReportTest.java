@@ -19,6 +19,7 @@ import org.joda.time.DateTime;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.junit.experimental.categories.Category;
 import org.sagebionetworks.bridge.rest.api.AssessmentsApi;
 import org.sagebionetworks.bridge.rest.api.ForConsentedUsersApi;
 import org.sagebionetworks.bridge.rest.api.ForDevelopersApi;
@@ -39,6 +40,7 @@ import org.sagebionetworks.bridge.user.TestUserHelper;
 
 import com.google.common.collect.ImmutableSet;
 
+@Category(SerialTest.class)
 public class EventStreamAdherenceReportTest {
     
     private TestUser participant;
@@ -20,6 +20,7 @@ import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.junit.experimental.categories.Category;
 
 import org.sagebionetworks.bridge.rest.ClientManager;
 import org.sagebionetworks.bridge.rest.api.AuthenticationApi;
@@ -48,6 +49,7 @@ import com.google.common.collect.Lists;
 import retrofit2.Response;
 
 @SuppressWarnings("ConstantConditions")
+@Category(SerialTest.class)
 public class ExternalIdsV4Test {
     private String prefix;
     private TestUser admin;
@@ -28,7 +28,6 @@ import org.sagebionetworks.bridge.rest.model.GuidVersionHolder;
 import org.sagebionetworks.bridge.user.TestUser;
 import org.sagebionetworks.bridge.user.TestUserHelper;
 
-import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
 
@@ -162,14 +161,13 @@ public class FileTest {
             assertEquals(rev.getStatus(), AVAILABLE);
             
             // Verify that this file is accessible on S3.
-            OkHttpClient client = new OkHttpClient();
             Request request = new Request.Builder().url(rev.getDownloadURL()).build();
-            Response response = client.newCall(request).execute();
-            
-            assertEquals(200, response.code());
-            assertEquals("application/pdf", response.header("Content-Type"));
-            assertEquals("attachment; filename=\"test.pdf\"", response.header("Content-Disposition"));
-            assertEquals(rev.getSize(), Long.valueOf(response.header("Content-Length")));
+            try (Response response = SharedHttpClients.getOkHttpClient().newCall(request).execute()) {
+                assertEquals(200, response.code());
+                assertEquals("application/pdf", response.header("Content-Type"));
+                assertEquals("attachment; filename=\"test.pdf\"", response.header("Content-Disposition"));
+                assertEquals(rev.getSize(), Long.valueOf(response.header("Content-Length")));
+            }
             
             FileRevision oneRev = devsApi.getFileRevision(metadata.getGuid(), rev.getCreatedOn()).execute().body();
             assertEquals(url, oneRev.getDownloadURL());
@@ -0,0 +1,219 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.google.common.io.CharStreams;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.RestUtils;
+import org.sagebionetworks.bridge.rest.api.ForSuperadminsApi;
+import org.sagebionetworks.bridge.rest.api.ForWorkersApi;
+import org.sagebionetworks.bridge.rest.api.ParticipantsApi;
+import org.sagebionetworks.bridge.rest.api.StudiesApi;
+import org.sagebionetworks.bridge.rest.model.HealthDataRecordEx3;
+import org.sagebionetworks.bridge.rest.model.HealthDataRecordEx3List;
+import org.sagebionetworks.bridge.rest.model.Role;
+import org.sagebionetworks.bridge.rest.model.Study;
+import org.sagebionetworks.bridge.user.TestUser;
+import org.sagebionetworks.bridge.user.TestUserHelper;
+import org.sagebionetworks.bridge.util.IntegTestUtils;
+
+/**
+ * Seeds many HealthDataRecordEx3 rows with createOrUpdateRecordEx3, then scans them with getRecordsEx3ForUser,
+ * ForStudy and ForApp the way the export pipeline does, reporting end-to-end scan time and per-page latency for each
+ * page size. Scans are run both one page at a time and with the next page prefetched while the current page is
+ * processed (serialized to JSON, as an exporter would). Size the run with -Dload.records, -Dload.concurrency and
+ * -Dload.pageSizes (comma-separated).
+ */
+@Category(LoadTest.class)
+public class HealthDataEx3PaginationTest {
+    private static final Logger LOG = LoggerFactory.getLogger(HealthDataEx3PaginationTest.class);
+
+    private static final int RECORDS = Integer.getInteger("load.records", 10000);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 10);
+    private static final List<Integer> PAGE_SIZES = LoadTestRunner.intListProperty("load.pageSizes", "10,50,100");
+    private static final String APP_ID = IntegTestUtils.TEST_APP_ID;
+    private static final Writer NULL_WRITER = CharStreams.nullWriter();
+
+    private static TestUser admin;
+    private static TestUser worker;
+    private static TestUser user;
+    private static String healthCode;
+    private static Study study;
+    private static DateTime createdOnStart;
+    private static DateTime createdOnEnd;
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        admin = TestUserHelper.getSignedInAdmin();
+        worker = Tests.instrument(TestUserHelper.createAndSignInUser(HealthDataEx3PaginationTest.class, false,
+                Role.WORKER));
+        user = TestUserHelper.createAndSignInUser(HealthDataEx3PaginationTest.class, true);
+        healthCode = admin.getClient(ParticipantsApi.class).getParticipantById(user.getUserId(), false).execute()
+                .body().getHealthCode();
+
+        StudiesApi studiesApi = admin.getClient(StudiesApi.class);
+        String studyId = Tests.randomIdentifier(HealthDataEx3PaginationTest.class);
+        studiesApi.createStudy(new Study().identifier(studyId).name(studyId)).execute();
+        study = studiesApi.getStudy(studyId).execute().body();
+
+        // One millisecond apart, so every record has a distinct createdOn and scans have a stable order.
+        createdOnStart = DateTime.now(DateTimeZone.UTC).minusHours(1);
+        createdOnEnd = createdOnStart.plusMillis(RECORDS);
+        ForWorkersApi workersApi = worker.getClient(ForWorkersApi.class);
+        LoadTestRunner runner = new LoadTestRunner(CONCURRENCY);
+        List<Integer> indices = IntStream.range(0, RECORDS).boxed().collect(Collectors.toList());
+        int failures = runner.forEach(indices, (i, iteration) -> {
+            HealthDataRecordEx3 record = new HealthDataRecordEx3().createdOn(createdOnStart.plusMillis(i))
+                    .healthCode(healthCode).studyId(study.getIdentifier()).exported(false);
+            runner.getRecorder().time("createOrUpdateRecordEx3",
+                    () -> workersApi.createOrUpdateRecordEx3(APP_ID, record).execute());
+        });
+        runner.getRecorder().logSummary(LOG);
+        assertEquals(0, failures);
+
+        // Listing is eventually consistent. Wait until the last record shows up.
+        Tests.retryHelper(() -> workersApi.getRecordsEx3ForUser(APP_ID, user.getUserId(),
+                createdOnEnd.minusMillis(1), createdOnEnd, null, null).execute().body().getItems(),
+                items -> !items.isEmpty(), 60000);
+    }
+
+    @AfterClass
+    public static void afterClass() throws Exception {
+        if (user != null) {
+            admin.getClient(ForSuperadminsApi.class).deleteRecordsEx3ForUser(APP_ID, user.getUserId()).execute();
+            user.signOutAndDeleteUser();
+        }
+        if (study != null) {
+            admin.getClient(StudiesApi.class).deleteStudy(study.getIdentifier(), true).execute();
+        }
+        if (worker != null) {
+            worker.signOutAndDeleteUser();
+        }
+    }
+
+    @Test
+    public void scanByUser() throws Exception {
+        ForWorkersApi workersApi = worker.getClient(ForWorkersApi.class);
+        runScans("ForUser", (pageSize, offsetKey) -> workersApi.getRecordsEx3ForUser(APP_ID, user.getUserId(),
+                createdOnStart, createdOnEnd, pageSize, offsetKey).execute().body());
+    }
+
+    @Test
+    public void scanByStudy() throws Exception {
+        ForWorkersApi workersApi = worker.getClient(ForWorkersApi.class);
+        runScans("ForStudy", (pageSize, offsetKey) -> workersApi.getRecordsEx3ForStudy(APP_ID,
+                study.getIdentifier(), createdOnStart, createdOnEnd, pageSize, offsetKey).execute().body());
+    }
+
+    @Test
+    public void scanByApp() throws Exception {
+        ForWorkersApi workersApi = worker.getClient(ForWorkersApi.class);
+        runScans("ForApp", (pageSize, offsetKey) -> workersApi.getRecordsEx3ForApp(APP_ID, createdOnStart,
+                createdOnEnd, pageSize, offsetKey).execute().body());
+    }
+
+    /**
+     * Resuming a scan from a saved offset key should cost the same however deep into the scan the key is. Collects
+     * the offset keys of a full scan, then fetches the page at several depths.
+     */
+    @Test
+    public void pageLatencyByOffsetDepth() throws Exception {
+        ForWorkersApi workersApi = worker.getClient(ForWorkersApi.class);
+        int pageSize = PAGE_SIZES.get(PAGE_SIZES.size() - 1);
+        List<String> offsetKeys = new ArrayList<>();
+        String offsetKey = null;
+        do {
+            offsetKeys.add(offsetKey);
+            offsetKey = workersApi.getRecordsEx3ForUser(APP_ID, user.getUserId(), createdOnStart, createdOnEnd,
+                    pageSize, offsetKey).execute().body().getNextPageOffsetKey();
+        } while (offsetKey != null);
+
+        LatencyRecorder recorder = new LatencyRecorder();
+        for (int percent : new int[] { 0, 25, 50, 75, 100 }) {
+            int page = (offsetKeys.size() - 1) * percent / 100;
+            String key = offsetKeys.get(page);
+            for (int i = 0; i < 10; i++) {
+                recorder.time(String.format("ForUser pageSize=%d page at %3d%%", pageSize, percent),
+                        () -> workersApi.getRecordsEx3ForUser(APP_ID, user.getUserId(), createdOnStart,
+                                createdOnEnd, pageSize, key).execute());
+            }
+        }
+        recorder.logSummary(LOG);
+    }
+
+    private void runScans(String api, PageFetcher fetcher) throws Exception {
+        LatencyRecorder recorder = new LatencyRecorder();
+        for (int pageSize : PAGE_SIZES) {
+            for (boolean prefetch : new boolean[] { false, true }) {
+                String name = String.format("%s pageSize=%d%s", api, pageSize, prefetch ? " prefetch" : "");
+                int count = recorder.time(name + " scan", () -> scan(name, fetcher, pageSize, prefetch, recorder));
+                assertEquals(name, RECORDS, count);
+            }
+        }
+        recorder.logSummary(LOG);
+    }
+
+    // Scans every page and returns the number of this test's records. With prefetch, the request for the next page
+    // is in flight while the current page is processed.
+    private static int scan(String name, PageFetcher fetcher, int pageSize, boolean prefetch,
+            LatencyRecorder recorder) throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            int count = 0;
+            HealthDataRecordEx3List page = recorder.time(name + " page", () -> fetcher.fetch(pageSize, null));
+            while (page != null) {
+                String nextKey = page.getNextPageOffsetKey();
+                Future<HealthDataRecordEx3List> next = null;
+                if (nextKey != null && prefetch) {
+                    next = executor.submit(() -> recorder.time(name + " page", () -> fetcher.fetch(pageSize,
+                            nextKey)));
+                }
+                count += process(page);
+                if (nextKey == null) {
+                    page = null;
+                } else if (next != null) {
+                    page = next.get();
+                } else {
+                    page = recorder.time(name + " page", () -> fetcher.fetch(pageSize, nextKey));
+                }
+            }
+            return count;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Stands in for the exporter's work on each page: serialize the records, and count the ones this test wrote.
+    private static int process(HealthDataRecordEx3List page) throws Exception {
+        int count = 0;
+        for (HealthDataRecordEx3 record : page.getItems()) {
+            RestUtils.GSON.toJson(record, NULL_WRITER);
+            if (healthCode.equals(record.getHealthCode())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @FunctionalInterface
+    private interface PageFetcher {
+        HealthDataRecordEx3List fetch(int pageSize, String offsetKey) throws Exception;
+    }
+}
@@ -52,7 +52,7 @@ import org.sagebionetworks.bridge.rest.model.UploadValidationStrictness;
 import org.sagebionetworks.bridge.user.TestUser;
 import org.sagebionetworks.bridge.user.TestUserHelper;
 
-@Category(IntegrationSmokeTest.class)
+@Category({IntegrationSmokeTest.class, SerialTest.class})
 @SuppressWarnings({ "ConstantConditions", "unchecked" })
 public class HealthDataTest {
     private static final String APP_VERSION = "version 1.0.0, build 2";
@@ -0,0 +1,35 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+
+/** Peak heap use across the JVM's heap memory pools, for tests that check memory stays bounded. */
+final class HeapUsage {
+    private HeapUsage() {
+    }
+
+    /** Collects garbage, resets the peak, and returns the heap in use afterwards as a baseline. */
+    static long resetPeak() {
+        System.gc();
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+                used += pool.getUsage().getUsed();
+            }
+        }
+        return used;
+    }
+
+    /** The sum of the heap pools' peak use since the last {@link #resetPeak()}. */
+    static long getPeak() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+}
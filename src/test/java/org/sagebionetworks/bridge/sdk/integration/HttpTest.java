@@ -5,11 +5,10 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.fluent.Request;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -72,10 +71,9 @@ public class HttpTest {
         if (TestUserHelper.getSignedInAdmin().getClientManager().getConfig().getEnvironment() != Environment.LOCAL) {
             
             // You can't use the fluent API because it doesn't allow you to observe redirects.
-            CloseableHttpClient httpclient = HttpClients.custom().disableRedirectHandling().build();
-            
             HttpGet httpGet = new HttpGet(testBaseUrl.replace("https","http")+"/");
-            CloseableHttpResponse response = httpclient.execute(httpGet);
+            httpGet.setConfig(RequestConfig.custom().setRedirectsEnabled(false).build());
+            CloseableHttpResponse response = SharedHttpClients.getApacheHttpClient().execute(httpGet);
             try {
                 assertEquals(301, response.getStatusLine().getStatusCode());
                 assertNotNull(response.getFirstHeader("location").getValue());
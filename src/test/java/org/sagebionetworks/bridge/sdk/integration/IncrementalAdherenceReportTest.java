@@ -0,0 +1,128 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static java.util.stream.Collectors.toSet;
+import static org.junit.Assert.assertEquals;
+import static org.sagebionetworks.bridge.rest.model.SessionCompletionState.COMPLETED;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableList;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.api.ForConsentedUsersApi;
+import org.sagebionetworks.bridge.rest.api.ForStudyCoordinatorsApi;
+import org.sagebionetworks.bridge.rest.api.StudyAdherenceApi;
+import org.sagebionetworks.bridge.rest.api.StudyParticipantsApi;
+import org.sagebionetworks.bridge.rest.model.AdherenceRecord;
+import org.sagebionetworks.bridge.rest.model.AdherenceRecordUpdates;
+import org.sagebionetworks.bridge.rest.model.DetailedAdherenceReport;
+import org.sagebionetworks.bridge.rest.model.EventStreamAdherenceReport;
+import org.sagebionetworks.bridge.rest.model.EventStreamWindow;
+import org.sagebionetworks.bridge.rest.model.ScheduledSession;
+import org.sagebionetworks.bridge.user.TestUser;
+
+/**
+ * Appends a participant's session adherence records one at a time, fetching the adherence reports after each append.
+ * Every report is recomputed from all of the participant's records, so if report latency grows with the record count,
+ * it shows here. Each report is fetched twice: once right after the append (the report has changed) and once again
+ * with nothing changed, which would be cheaper if the server cached or updated reports incrementally.
+ *
+ * <p>The event stream and detailed reports are checked after every append against a local model: the set of session
+ * instances this test has completed. A window should be COMPLETED if and only if the test has completed it. Set the
+ * number of appends with -Dload.appends, and the size of the buckets latencies are grouped into with
+ * -Dload.bucketSize.</p>
+ */
+@Category(LoadTest.class)
+public class IncrementalAdherenceReportTest {
+    private static final Logger LOG = LoggerFactory.getLogger(IncrementalAdherenceReportTest.class);
+
+    private static final int APPENDS = Integer.getInteger("load.appends", 200);
+    private static final int BUCKET_SIZE = Integer.getInteger("load.bucketSize", 25);
+
+    private AdherenceLoadFixture fixture;
+    private TestUser user;
+
+    @Before
+    public void before() throws Exception {
+        // Enough daily sessions for the default number of appends.
+        fixture = new AdherenceLoadFixture(IncrementalAdherenceReportTest.class, "P8W", 4);
+        user = fixture.enroll();
+    }
+
+    @After
+    public void after() throws Exception {
+        if (user != null) {
+            user.signOutAndDeleteUser();
+        }
+        if (fixture != null) {
+            fixture.delete();
+        }
+    }
+
+    @Test
+    public void reportsAfterEachAppend() throws Exception {
+        String studyId = fixture.getStudyId();
+        ForConsentedUsersApi usersApi = user.getClient(ForConsentedUsersApi.class);
+        StudyParticipantsApi participantsApi = fixture.getStaff().getClient(StudyParticipantsApi.class);
+        StudyAdherenceApi adherenceApi = fixture.getStaff().getClient(StudyAdherenceApi.class);
+        ForStudyCoordinatorsApi coordApi = fixture.getStaff().getClient(ForStudyCoordinatorsApi.class);
+
+        List<ScheduledSession> sessions = fixture.getTimeline(user).getSchedule();
+        DateTime enrollment = fixture.getEnrollment(user);
+        int appends = Math.min(APPENDS, sessions.size());
+        LatencyRecorder recorder = new LatencyRecorder();
+
+        // The reference model: session instances with a finished adherence record.
+        Set<String> completed = new HashSet<>();
+        for (int i = 0; i < appends; i++) {
+            String instanceGuid = sessions.get(i).getInstanceGuid();
+            DateTime now = DateTime.now(DateTimeZone.UTC);
+            AdherenceRecord record = new AdherenceRecord().instanceGuid(instanceGuid).eventTimestamp(enrollment)
+                    .startedOn(now).finishedOn(now);
+            usersApi.updateAdherenceRecords(studyId, new AdherenceRecordUpdates().records(ImmutableList.of(record)))
+                    .execute();
+            completed.add(instanceGuid);
+
+            int bucket = (i / BUCKET_SIZE) * BUCKET_SIZE;
+            String prefix = String.format("%04d-%04d records ", bucket + 1, bucket + BUCKET_SIZE);
+            for (String when : new String[] { "after append", "unchanged" }) {
+                EventStreamAdherenceReport eventStream = recorder.time(prefix + "eventStream " + when,
+                        () -> usersApi.getUsersStudyParticipantEventStreamAdherenceReport(studyId, DateTime.now(),
+                                false).execute().body());
+                recorder.time(prefix + "weekly " + when,
+                        () -> participantsApi.getWeeklyAdherenceReport(studyId, user.getUserId()).execute());
+                recorder.time(prefix + "study " + when,
+                        () -> adherenceApi.getStudyParticipantAdherenceReport(studyId, user.getUserId()).execute());
+                DetailedAdherenceReport detailed = recorder.time(prefix + "detailed " + when,
+                        () -> coordApi.getDetailedParticipantAdherenceReport(studyId, user.getUserId()).execute()
+                                .body());
+
+                assertEquals("event stream report after " + (i + 1) + " records", completed,
+                        completedWindows(eventStream));
+                long detailedCompleted = detailed.getSessionRecords().stream()
+                        .filter(sessionRecord -> sessionRecord.getSessionStatus() == COMPLETED).count();
+                assertEquals("detailed report after " + (i + 1) + " records", completed.size(), detailedCompleted);
+            }
+        }
+        recorder.logSummary(LOG);
+    }
+
+    private static Set<String> completedWindows(EventStreamAdherenceReport report) {
+        return report.getStreams().stream()
+                .flatMap(stream -> stream.getByDayEntries().values().stream())
+                .flatMap(List::stream)
+                .flatMap(day -> day.getTimeWindows().stream())
+                .filter(window -> window.getState() == COMPLETED)
+                .map(EventStreamWindow::getSessionInstanceGuid)
+                .collect(toSet());
+    }
+}
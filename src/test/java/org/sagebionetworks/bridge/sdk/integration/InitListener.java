@@ -13,6 +13,8 @@ import static org.sagebionetworks.bridge.util.IntegTestUtils.SAGE_ID;
 import static org.sagebionetworks.bridge.util.IntegTestUtils.SAGE_NAME;
 import static org.sagebionetworks.bridge.util.IntegTestUtils.TEST_APP_ID;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -28,13 +30,11 @@ import org.sagebionetworks.bridge.rest.api.AuthenticationApi;
 import org.sagebionetworks.bridge.rest.api.ForAdminsApi;
 import org.sagebionetworks.bridge.rest.api.ForOrgAdminsApi;
 import org.sagebionetworks.bridge.rest.api.OrganizationsApi;
-import org.sagebionetworks.bridge.rest.api.ParticipantsApi;
 import org.sagebionetworks.bridge.rest.api.StudiesApi;
 import org.sagebionetworks.bridge.rest.api.SubpopulationsApi;
 import org.sagebionetworks.bridge.rest.exceptions.ConstraintViolationException;
+import org.sagebionetworks.bridge.rest.exceptions.EntityAlreadyExistsException;
 import org.sagebionetworks.bridge.rest.exceptions.EntityNotFoundException;
-import org.sagebionetworks.bridge.rest.model.AccountSummary;
-import org.sagebionetworks.bridge.rest.model.AccountSummarySearch;
 import org.sagebionetworks.bridge.rest.model.App;
 import org.sagebionetworks.bridge.rest.model.CustomEvent;
 import org.sagebionetworks.bridge.rest.model.Environment;
@@ -66,6 +66,11 @@ public class InitListener extends RunListener {
         if (testRunInitialized) {
             return;
         }
+        // Tests run against the in-process stub server don't need (and may not have) a live environment.
+        if (Boolean.parseBoolean(Tests.loadTestConfig().get("stub.server.enabled"))) {
+            testRunInitialized = true;
+            return;
+        }
         // Must do this first to initialize the logger correctly
         TestUser admin = TestUserHelper.getSignedInAdmin();
 
@@ -75,9 +80,7 @@ public class InitListener extends RunListener {
         try {
             studiesApi.getStudy(STUDY_ID_1).execute();
         } catch(EntityNotFoundException e) {
-            Study study = new Study().identifier(STUDY_ID_1).name(STUDY_ID_1);
-            studiesApi.createStudy(study).execute();
-            LOG.info("  Creating study “{}”", STUDY_ID_1);
+            createStudy(studiesApi, new Study().identifier(STUDY_ID_1).name(STUDY_ID_1));
         }
         
         Study study1 = studiesApi.getStudy(STUDY_ID_1).execute().body();
@@ -93,9 +96,7 @@ public class InitListener extends RunListener {
         try {
             studiesApi.getStudy(STUDY_ID_2).execute();
         } catch(EntityNotFoundException e) {
-            Study study = new Study().identifier(STUDY_ID_2).name(STUDY_ID_2);
-            studiesApi.createStudy(study).execute();
-            LOG.info("  Creating study “{}”", STUDY_ID_2);
+            createStudy(studiesApi, new Study().identifier(STUDY_ID_2).name(STUDY_ID_2));
         }
 
         OrganizationsApi orgsApi = admin.getClient(OrganizationsApi.class);
@@ -104,24 +105,21 @@ public class InitListener extends RunListener {
         } catch(EntityNotFoundException e) {
             Organization org = new Organization().identifier(ORG_ID_1).name(ORG_ID_1)
                     .description("Org 1 sponsors study 1 only");
-            orgsApi.createOrganization(org).execute();
-            LOG.info("  Creating organization “{}”", ORG_ID_1);
+            createOrganization(orgsApi, org);
         }
         try {
             orgsApi.getOrganization(ORG_ID_2).execute();
         } catch(EntityNotFoundException e) {
             Organization org = new Organization().identifier(ORG_ID_2).name(ORG_ID_2)
                     .description("Org 2 sponsors study 2 only");
-            orgsApi.createOrganization(org).execute();
-            LOG.info("  Creating organization “{}”", ORG_ID_2);
+            createOrganization(orgsApi, org);
         }
         try {
             orgsApi.getOrganization(SAGE_ID).execute();
         } catch(EntityNotFoundException e) {
             Organization org = new Organization().identifier(SAGE_ID).name(SAGE_NAME)
                     .description("Sage sponsors study1 and study2");
-            orgsApi.createOrganization(org).execute();
-            LOG.info("  Creating organization “{}”", SAGE_ID);
+            createOrganization(orgsApi, org);
         }
         try {
             orgsApi.addStudySponsorship(SAGE_ID, STUDY_ID_1).execute();
@@ -179,33 +177,49 @@ public class InitListener extends RunListener {
             }
         }
 
+        // In the parallel-tests profile, every fork runs this listener. Other forks are using their accounts, so
+        // leave the wipe to the serial phase that runs afterwards.
+        if (Tests.isParallelFork()) {
+            testRunInitialized = true;
+            return;
+        }
+
         // Wipe all test accounts.
-        AccountSummarySearch search = new AccountSummarySearch().emailFilter("bridge-testing");
-        ParticipantsApi participantsApi = admin.getClient(ParticipantsApi.class);
-        List<AccountSummary> accountSummaryList;
-        int numPages = 0;
-        do {
-            if (numPages >= 5) {
-                // Short-circuit to prevent an infinite loop.
-                LOG.error("Too many test accounts. Breaking out of account cleanup loop.");
-                break;
-            }
+        new TestAccountCleaner(admin).deleteAccounts("bridge-testing");
 
-            accountSummaryList = participantsApi.searchAccountSummaries(search).execute().body().getItems();
-            for (AccountSummary accountSummary : accountSummaryList) {
-                adminApi.deleteUser(accountSummary.getId()).execute();
-            }
-            numPages++;
+        testRunInitialized = true;
+    }
 
-            // Sleep for 1 second before re-querying, to make sure we don't overload the server.
-            //noinspection BusyWait
-            Thread.sleep(1000);
-        } while (!accountSummaryList.isEmpty());
+    // Forks running in parallel may all try to create the same study. The first one wins and the rest move on.
+    private static void createStudy(StudiesApi studiesApi, Study study) throws IOException {
+        try {
+            studiesApi.createStudy(study).execute();
+            LOG.info("  Creating study “{}”", study.getIdentifier());
+        } catch (EntityAlreadyExistsException e) {
+            LOG.info("  Study “{}” was created concurrently", study.getIdentifier());
+        }
+    }
 
-        testRunInitialized = true;
+    private static void createOrganization(OrganizationsApi orgsApi, Organization org) throws IOException {
+        try {
+            orgsApi.createOrganization(org).execute();
+            LOG.info("  Creating organization “{}”", org.getIdentifier());
+        } catch (EntityAlreadyExistsException e) {
+            LOG.info("  Organization “{}” was created concurrently", org.getIdentifier());
+        }
     }
+
     @Override
     public void testRunFinished(Result result) throws Exception {
-        // noop
+        if (!Tests.RETRY_LATENCY_RECORDER.getAllStats().isEmpty()) {
+            LOG.info("Time for eventually consistent reads to succeed in retryHelper:");
+            Tests.RETRY_LATENCY_RECORDER.logSummary(LOG);
+        }
+        SharedHttpClients.logStats(LOG);
+        if (!Tests.API_CALL_RECORDER.isEmpty()) {
+            File reportFile = Tests.getApiCallReportFile();
+            Tests.API_CALL_RECORDER.writeReport(reportFile);
+            LOG.info("Wrote SDK call latencies to {}", reportFile.getAbsolutePath());
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import okhttp3.Interceptor;
+import retrofit2.Retrofit;
+
+import org.sagebionetworks.bridge.user.TestUser;
+
+/**
+ * A TestUser whose API clients send their calls over the connection pool in {@link SharedHttpClients} and record every
+ * call in {@link Tests#API_CALL_RECORDER}. Create one with {@link Tests#instrument(TestUser)}; it shares the original
+ * user's ClientManager and session. Users created with {@link Tests#instrument(TestUser, Interceptor...)} also send
+ * their calls through the given interceptors.
+ */
+public class InstrumentedTestUser extends TestUser {
+    private final Interceptor[] interceptors;
+    // The SDK's Retrofit for this user, rebuilt on the shared pool. Only this user refers to them, so they are collected
+    // with it rather than accumulating for the whole run.
+    private final Map<Retrofit, Retrofit> sharedRetrofits = new ConcurrentHashMap<>();
+
+    InstrumentedTestUser(TestUser user, Interceptor... interceptors) {
+        super(user.getSignIn(), user.getClientManager(), user.getUserId());
+        this.interceptors = interceptors;
+    }
+
+    @Override
+    public <T> T getClient(Class<T> service) {
+        Retrofit retrofit = SharedHttpClients.getRetrofit(super.getClient(service));
+        return sharedRetrofits.computeIfAbsent(retrofit, key -> SharedHttpClients.share(key, interceptors))
+                .create(service);
+    }
+}
@@ -0,0 +1,190 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.RestUtils;
+import org.sagebionetworks.bridge.rest.api.AppsApi;
+import org.sagebionetworks.bridge.rest.model.App;
+import org.sagebionetworks.bridge.rest.model.Role;
+import org.sagebionetworks.bridge.rest.model.UserSessionInfo;
+import org.sagebionetworks.bridge.user.TestUser;
+import org.sagebionetworks.bridge.user.TestUserHelper;
+
+/**
+ * Load version of {@link IpLockingTest}. Many participants, each with its own spoofed X-Forwarded-For address, sign
+ * in and make requests concurrently, first with participant IP locking off and then on. Every -Dload.roamEvery-th
+ * request comes from a new address, as when a phone changes networks. With locking on, that request should get a 401,
+ * and the participant signs in again from the new address.
+ *
+ * <p>Logs latency for requests from the session's own address (the difference between the two modes is the cost of
+ * the lock check), for requests from a changed address, and for the sign-ins, plus status code counts, including any
+ * 429s from throttling. Size the run with -Dload.users, -Dload.concurrency and -Dload.iterations.</p>
+ */
+@Category(LoadTest.class)
+public class IpLockingLoadTest {
+    private static final Logger LOG = LoggerFactory.getLogger(IpLockingLoadTest.class);
+
+    private static final int USERS = Integer.getInteger("load.users", 100);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 20);
+    private static final int ITERATIONS = Integer.getInteger("load.iterations", 20);
+    private static final int ROAM_EVERY = Integer.getInteger("load.roamEvery", 5);
+    private static final String LOAD_BALANCER = "10.255.0.1";
+    private static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
+
+    // A participant's raw-HTTP session and the address it signed in from. Only one thread uses a caller at a time.
+    private static class Caller {
+        final TestUser user;
+        final int index;
+        int addressCount;
+        String address;
+        String sessionToken;
+
+        Caller(TestUser user, int index) {
+            this.user = user;
+            this.index = index;
+        }
+
+        // Each participant gets its own range of addresses, so no two ever share one.
+        String nextAddress() {
+            addressCount++;
+            return String.format("10.%d.%d.%d", index / 256, index % 256, addressCount % 256);
+        }
+    }
+
+    private static TestUser developer;
+    private static Boolean ipLockingEnabled;
+    private static String hostUrl;
+    private static List<Caller> callers;
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        developer = TestUserHelper.createAndSignInUser(IpLockingLoadTest.class, true, Role.DEVELOPER);
+        hostUrl = developer.getClientManager().getHostUrl();
+        ipLockingEnabled = developer.getClient(AppsApi.class).getUsersApp().execute().body()
+                .isParticipantIpLockingEnabled();
+
+        List<TestUser> users = new LoadTestRunner(CONCURRENCY).createUsers(USERS,
+                () -> TestUserHelper.createAndSignInUser(IpLockingLoadTest.class, true));
+        callers = new ArrayList<>();
+        for (TestUser user : users) {
+            callers.add(new Caller(user, callers.size()));
+        }
+    }
+
+    @AfterClass
+    public static void afterClass() throws Exception {
+        if (callers != null) {
+            new LoadTestRunner(CONCURRENCY).forEach(callers, (caller, i) -> caller.user.signOutAndDeleteUser());
+        }
+        if (ipLockingEnabled != null) {
+            updateIpLockingFlag(ipLockingEnabled);
+        }
+        if (developer != null) {
+            developer.signOutAndDeleteUser();
+        }
+    }
+
+    @Test
+    public void ipLockingUnderLoad() throws Exception {
+        LatencyRecorder recorder = new LatencyRecorder();
+        for (boolean locking : new boolean[] { false, true }) {
+            updateIpLockingFlag(locking);
+            String mode = locking ? "(locking on)" : "(locking off)";
+            Map<String, AtomicInteger> statusCounts = new ConcurrentHashMap<>();
+
+            LoadTestRunner runner = new LoadTestRunner(CONCURRENCY);
+            // A failed sign-in or request would leave a caller's address out of step and skew the status counts.
+            int failures = runner.forEach(callers, (caller, i) -> signIn(caller, caller.nextAddress(),
+                    "signIn " + mode, recorder, statusCounts));
+            assertEquals("sign-in failures " + mode, 0, failures);
+            failures = runner.run(callers, ITERATIONS, (caller, iteration) -> {
+                boolean roam = (iteration % ROAM_EVERY) == ROAM_EVERY - 1;
+                String address = roam ? caller.nextAddress() : caller.address;
+                String name = (roam ? "changed address " : "same address ") + mode;
+                int status = get(caller.sessionToken, address, name, recorder, statusCounts);
+                if (status == 401) {
+                    // Locked out. The app signs in again from where it is now.
+                    signIn(caller, address, "signIn after lockout " + mode, recorder, statusCounts);
+                }
+            });
+            assertEquals("request failures " + mode, 0, failures);
+
+            LOG.info("Status codes {}: {}", mode, statusCounts);
+            int roamingRequests = callers.size() * (ITERATIONS / ROAM_EVERY);
+            AtomicInteger expected = statusCounts.get("changed address " + mode + " " + (locking ? 401 : 200));
+            assertEquals("changed-address requests with the expected status " + mode, roamingRequests,
+                    (expected == null) ? 0 : expected.get());
+        }
+        recorder.logSummary(LOG);
+
+        LatencyRecorder.Stats off = recorder.getStats("same address (locking off)");
+        LatencyRecorder.Stats on = recorder.getStats("same address (locking on)");
+        LOG.info("Lock check overhead: p50 {} ms, p95 {} ms", String.format("%+.1f", on.getP50() - off.getP50()),
+                String.format("%+.1f", on.getP95() - off.getP95()));
+    }
+
+    private static void updateIpLockingFlag(boolean participantIpLockingEnabled) throws Exception {
+        AppsApi appsApi = developer.getClient(AppsApi.class);
+        App app = appsApi.getUsersApp().execute().body();
+        if (!Boolean.valueOf(participantIpLockingEnabled).equals(app.isParticipantIpLockingEnabled())) {
+            app.setParticipantIpLockingEnabled(participantIpLockingEnabled);
+            appsApi.updateUsersApp(app).execute();
+        }
+    }
+
+    private static void signIn(Caller caller, String address, String name, LatencyRecorder recorder,
+            Map<String, AtomicInteger> statusCounts) throws IOException {
+        Request request = new Request.Builder().url(hostUrl + "/v3/auth/signIn")
+                .header("X-Forwarded-For", address + ", " + LOAD_BALANCER)
+                .post(RequestBody.create(JSON, RestUtils.GSON.toJson(caller.user.getSignIn())))
+                .build();
+        long start = System.nanoTime();
+        try (Response response = SharedHttpClients.getOkHttpClient().newCall(request).execute()) {
+            recorder.record(name, System.nanoTime() - start, response.isSuccessful());
+            count(statusCounts, name, response.code());
+            if (!response.isSuccessful()) {
+                throw new IOException(name + " returned " + response.code());
+            }
+            UserSessionInfo session = RestUtils.GSON.fromJson(response.body().charStream(), UserSessionInfo.class);
+            caller.sessionToken = session.getSessionToken();
+            caller.address = address;
+        }
+    }
+
+    private static int get(String sessionToken, String address, String name, LatencyRecorder recorder,
+            Map<String, AtomicInteger> statusCounts) throws IOException {
+        Request request = new Request.Builder().url(hostUrl + "/v1/activityevents")
+                .header("Bridge-Session", sessionToken)
+                .header("X-Forwarded-For", address + ", " + LOAD_BALANCER)
+                .build();
+        long start = System.nanoTime();
+        try (Response response = SharedHttpClients.getOkHttpClient().newCall(request).execute()) {
+            // A 401 from a changed address is the lock working, not an error.
+            recorder.record(name, System.nanoTime() - start, response.isSuccessful() || response.code() == 401);
+            count(statusCounts, name, response.code());
+            return response.code();
+        }
+    }
+
+    private static void count(Map<String, AtomicInteger> statusCounts, String name, int status) {
+        statusCounts.computeIfAbsent(name + " " + status, k -> new AtomicInteger()).incrementAndGet();
+    }
+}
@@ -14,6 +14,7 @@ import org.apache.http.util.EntityUtils;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.junit.experimental.categories.Category;
 
 import org.sagebionetworks.bridge.rest.api.AppsApi;
 import org.sagebionetworks.bridge.rest.model.App;
@@ -22,6 +23,7 @@ import org.sagebionetworks.bridge.user.TestUser;
 import org.sagebionetworks.bridge.user.TestUserHelper;
 
 // This test makes raw HTTP requests, because we need to spoof the X-Forwarded-For header.
+@Category(SerialTest.class)
 public class IpLockingTest {
     private static final ObjectMapper JSON_OBJECT_MAPPER = new ObjectMapper();
 
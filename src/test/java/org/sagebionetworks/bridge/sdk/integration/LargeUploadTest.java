@@ -0,0 +1,101 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.api.ForAdminsApi;
+import org.sagebionetworks.bridge.rest.api.ForConsentedUsersApi;
+import org.sagebionetworks.bridge.rest.model.Upload;
+import org.sagebionetworks.bridge.rest.model.UploadRequest;
+import org.sagebionetworks.bridge.rest.model.UploadSession;
+import org.sagebionetworks.bridge.user.TestUser;
+import org.sagebionetworks.bridge.user.TestUserHelper;
+
+/**
+ * Uploads a multi-hundred-megabyte file, the size of a wearable sensor archive, with {@link StreamingUploadHelper},
+ * and checks that the heap doesn't grow with the file. Set the size with -Dupload.large.megabytes.
+ */
+@Category(LoadTest.class)
+public class LargeUploadTest {
+    private static final Logger LOG = LoggerFactory.getLogger(LargeUploadTest.class);
+
+    private static final int MEGABYTES = Integer.getInteger("upload.large.megabytes", 300);
+    private static final String CONTENT_TYPE = "application/octet-stream";
+
+    private TestUser user;
+    private File file;
+
+    @Before
+    public void before() throws Exception {
+        user = TestUserHelper.createAndSignInUser(LargeUploadTest.class, true);
+        file = createSensorArchive(MEGABYTES);
+    }
+
+    @After
+    public void after() throws Exception {
+        if (user != null) {
+            user.signOutAndDeleteUser();
+        }
+        if (file != null) {
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+
+    @Test
+    public void uploadLargeFile() throws Exception {
+        long baselineHeap = HeapUsage.resetPeak();
+        long start = System.nanoTime();
+
+        UploadRequest request = StreamingUploadHelper.makeUploadRequest(file, CONTENT_TYPE).encrypted(false)
+                .zipped(false);
+        long md5Nanos = System.nanoTime() - start;
+
+        ForConsentedUsersApi usersApi = user.getClient(ForConsentedUsersApi.class);
+        UploadSession session = usersApi.requestUploadSession(request).execute().body();
+
+        long putStart = System.nanoTime();
+        StreamingUploadHelper.uploadToS3(file, session.getUrl(), CONTENT_TYPE, request.getContentMd5());
+        long putNanos = System.nanoTime() - putStart;
+
+        // Completing the upload fails if the object isn't in S3.
+        usersApi.completeUploadSession(session.getId(), false, false).execute();
+        long peakHeapGrowth = HeapUsage.getPeak() - baselineHeap;
+
+        LOG.info("Uploaded {} MB: MD5 in {} ms, PUT in {} ms ({} MB/s), peak heap growth {} MB", MEGABYTES,
+                md5Nanos / 1000000, putNanos / 1000000, String.format("%.1f", MEGABYTES / (putNanos / 1e9)),
+                peakHeapGrowth / (1024 * 1024));
+
+        Upload upload = TestUserHelper.getSignedInAdmin().getClient(ForAdminsApi.class)
+                .getUploadById(session.getId()).execute().body();
+        assertEquals(Long.valueOf(file.length()), upload.getContentLength());
+        // Garbage from the HTTP client counts towards the peak, so allow some growth, but far less than the file.
+        assertTrue("Heap grew by " + peakHeapGrowth + " bytes", peakHeapGrowth < file.length() / 4);
+    }
+
+    // Random bytes don't compress, like real accelerometer and gyroscope archives. Written 1 MB at a time.
+    private static File createSensorArchive(int megabytes) throws IOException {
+        File archive = File.createTempFile("sensor-archive", ".bin");
+        byte[] buffer = new byte[1024 * 1024];
+        Random random = new Random();
+        try (OutputStream out = Files.newOutputStream(archive.toPath())) {
+            for (int i = 0; i < megabytes; i++) {
+                random.nextBytes(buffer);
+                out.write(buffer);
+            }
+        }
+        return archive;
+    }
+}
@@ -0,0 +1,149 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+
+/**
+ * Thread-safe recorder of call latencies, keyed by endpoint name (e.g. "signIn" or
+ * "ForConsentedUsersApi.getParticipantScheduleForSelf"). Throughput is measured over the wall-clock time from the
+ * start of the first recorded call to the end of the last, so time spent setting up before the first call doesn't
+ * count. Calls from different phases of a test still share that window, so create one recorder per load scenario.
+ */
+public class LatencyRecorder {
+    private final Map<String, List<Long>> latencies = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> errors = new ConcurrentHashMap<>();
+    private final AtomicLong firstStartNanos = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong lastEndNanos = new AtomicLong(Long.MIN_VALUE);
+
+    /** Times the call and records it under the endpoint name. Calls that throw are recorded as errors. */
+    public <T> T time(String endpoint, Callable<T> call) throws Exception {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            T result = call.call();
+            success = true;
+            return result;
+        } finally {
+            record(endpoint, System.nanoTime() - start, success);
+        }
+    }
+
+    public void record(String endpoint, long elapsedNanos, boolean success) {
+        long end = System.nanoTime();
+        firstStartNanos.accumulateAndGet(end - elapsedNanos, Math::min);
+        lastEndNanos.accumulateAndGet(end, Math::max);
+        latencies.computeIfAbsent(endpoint, key -> Collections.synchronizedList(new ArrayList<>()))
+                .add(elapsedNanos);
+        if (!success) {
+            errors.computeIfAbsent(endpoint, key -> new AtomicInteger()).incrementAndGet();
+        }
+    }
+
+    public Stats getStats(String endpoint) {
+        List<Long> samples = latencies.get(endpoint);
+        if (samples == null) {
+            return null;
+        }
+        List<Long> sorted;
+        synchronized (samples) {
+            sorted = new ArrayList<>(samples);
+        }
+        Collections.sort(sorted);
+
+        AtomicInteger errorCount = errors.get(endpoint);
+        double elapsedSeconds = (lastEndNanos.get() - firstStartNanos.get()) / (double) TimeUnit.SECONDS.toNanos(1);
+        return new Stats(endpoint, sorted, (errorCount == null) ? 0 : errorCount.get(), elapsedSeconds);
+    }
+
+    public SortedMap<String, Stats> getAllStats() {
+        SortedMap<String, Stats> map = new TreeMap<>();
+        for (String endpoint : latencies.keySet()) {
+            map.put(endpoint, getStats(endpoint));
+        }
+        return map;
+    }
+
+    public void logSummary(Logger log) {
+        for (Stats stats : getAllStats().values()) {
+            log.info("{}", stats);
+        }
+    }
+
+    public static class Stats {
+        private final String endpoint;
+        private final int count;
+        private final int errors;
+        private final double throughput;
+        private final double p50;
+        private final double p95;
+        private final double p99;
+        private final double max;
+
+        Stats(String endpoint, List<Long> sortedNanos, int errors, double elapsedSeconds) {
+            this.endpoint = endpoint;
+            this.count = sortedNanos.size();
+            this.errors = errors;
+            this.throughput = (elapsedSeconds > 0) ? count / elapsedSeconds : 0;
+            this.p50 = percentile(sortedNanos, 50);
+            this.p95 = percentile(sortedNanos, 95);
+            this.p99 = percentile(sortedNanos, 99);
+            this.max = sortedNanos.isEmpty() ? 0 : toMillis(sortedNanos.get(sortedNanos.size() - 1));
+        }
+
+        // Nearest-rank percentile, in milliseconds.
+        private static double percentile(List<Long> sortedNanos, int percentile) {
+            if (sortedNanos.isEmpty()) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(percentile / 100.0 * sortedNanos.size());
+            return toMillis(sortedNanos.get(Math.max(rank - 1, 0)));
+        }
+
+        private static double toMillis(long nanos) {
+            return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+
+        public String getEndpoint() {
+            return endpoint;
+        }
+        public int getCount() {
+            return count;
+        }
+        public int getErrors() {
+            return errors;
+        }
+        /** Calls per second. */
+        public double getThroughput() {
+            return throughput;
+        }
+        public double getP50() {
+            return p50;
+        }
+        public double getP95() {
+            return p95;
+        }
+        public double getP99() {
+            return p99;
+        }
+        public double getMax() {
+            return max;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: count=%d, errors=%d, throughput=%.2f/s, p50=%.1fms, p95=%.1fms, p99=%.1fms, " +
+                    "max=%.1fms", endpoint, count, errors, throughput, p50, p95, p99, max);
+        }
+    }
+}
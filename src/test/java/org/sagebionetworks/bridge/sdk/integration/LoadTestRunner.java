@@ -0,0 +1,144 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.google.common.base.Splitter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Drives many virtual users through a scenario concurrently. Each virtual user is usually a TestUser with its own
+ * ClientManager, so the scenario may use that user's clients freely, but should not share clients across users.
+ * Latencies are recorded through {@link #getRecorder()}.
+ */
+public class LoadTestRunner {
+    private static final Logger LOG = LoggerFactory.getLogger(LoadTestRunner.class);
+
+    /** A single iteration of a load scenario for one virtual user. */
+    @FunctionalInterface
+    public interface Scenario<T> {
+        void run(T user, int iteration) throws Exception;
+    }
+
+    private final int concurrency;
+    private final LatencyRecorder recorder = new LatencyRecorder();
+
+    public LoadTestRunner(int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("concurrency must be positive");
+        }
+        this.concurrency = concurrency;
+    }
+
+    public LatencyRecorder getRecorder() {
+        return recorder;
+    }
+
+    /**
+     * Calls the factory count times, concurrently, and returns the results. Used to create (and sign in) the users
+     * for a load test, which is otherwise the slowest part of setting up a large test. Creation time is recorded
+     * under the "createUser" endpoint, so time the scenario itself with a different runner. Throws if any user can't
+     * be created, rather than letting the test run with fewer users than configured; the users that were created are
+     * deleted by the test account cleanup at the start of the next run.
+     */
+    public <T> List<T> createUsers(int count, Callable<T> factory) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                futures.add(executor.submit(() -> recorder.time("createUser", factory)));
+            }
+            List<T> users = new ArrayList<>();
+            Throwable firstFailure = null;
+            for (Future<T> future : futures) {
+                try {
+                    users.add(future.get());
+                } catch (ExecutionException e) {
+                    LOG.error("Could not create load test user", e.getCause());
+                    if (firstFailure == null) {
+                        firstFailure = e.getCause();
+                    }
+                }
+            }
+            if (firstFailure != null) {
+                throw new IllegalStateException("Created only " + users.size() + " of " + count + " load test users",
+                        firstFailure);
+            }
+            return users;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs the scenario iterations times for every user, with up to concurrency iterations in flight at once.
+     * Iterations for one user run in order, so a user never runs two iterations at the same time. Returns the number
+     * of iterations that threw an exception; the first exception is logged.
+     */
+    public <T> int run(List<T> users, int iterations, Scenario<T> scenario) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        AtomicInteger failures = new AtomicInteger();
+        List<Throwable> firstFailure = Collections.synchronizedList(new ArrayList<>());
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (T user : users) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < iterations; i++) {
+                        try {
+                            scenario.run(user, i);
+                        } catch (Exception e) {
+                            if (failures.getAndIncrement() == 0) {
+                                firstFailure.add(e);
+                            }
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    // Scenario exceptions are caught above; this would be an Error.
+                    throw new RuntimeException(e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        if (!firstFailure.isEmpty()) {
+            LOG.error(failures.get() + " of " + (users.size() * iterations) + " iterations failed. First failure:",
+                    firstFailure.get(0));
+        }
+        return failures.get();
+    }
+
+    /** Runs the action once for each user, concurrently. Useful for setup and teardown. */
+    public <T> int forEach(List<T> users, Scenario<T> action) throws InterruptedException {
+        return run(users, 1, action);
+    }
+
+    /** A comma-separated list of integers from a system property (e.g. -Dload.pageSizes=10,50,100). */
+    public static List<Integer> intListProperty(String name, String defaultValue) {
+        return listProperty(name, defaultValue, Integer::valueOf);
+    }
+
+    /** A comma-separated list of numbers from a system property (e.g. -Dload.rates=0.5,1,2). */
+    public static List<Double> doubleListProperty(String name, String defaultValue) {
+        return listProperty(name, defaultValue, Double::valueOf);
+    }
+
+    private static <T> List<T> listProperty(String name, String defaultValue, Function<String, T> parser) {
+        return Splitter.on(',').trimResults().omitEmptyStrings().splitToList(System.getProperty(name, defaultValue))
+                .stream().map(parser).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,167 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static org.sagebionetworks.bridge.rest.model.ActivityEventUpdateType.MUTABLE;
+import static org.sagebionetworks.bridge.rest.model.PerformanceOrder.SEQUENTIAL;
+import static org.sagebionetworks.bridge.rest.model.SharingScope.ALL_QUALIFIED_RESEARCHERS;
+import static org.sagebionetworks.bridge.sdk.integration.Tests.STUDY_ID_1;
+import static org.sagebionetworks.bridge.util.IntegTestUtils.TEST_APP_ID;
+
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.sagebionetworks.bridge.rest.RestUtils;
+import org.sagebionetworks.bridge.rest.model.AdherenceRecord;
+import org.sagebionetworks.bridge.rest.model.AdherenceRecordUpdates;
+import org.sagebionetworks.bridge.rest.model.App;
+import org.sagebionetworks.bridge.rest.model.AssessmentReference2;
+import org.sagebionetworks.bridge.rest.model.HealthDataRecordEx3;
+import org.sagebionetworks.bridge.rest.model.Schedule2;
+import org.sagebionetworks.bridge.rest.model.Session;
+import org.sagebionetworks.bridge.rest.model.StudyBurst;
+import org.sagebionetworks.bridge.rest.model.StudyParticipant;
+import org.sagebionetworks.bridge.rest.model.TimeWindow;
+
+/**
+ * JMH benchmark of the rest-client's Gson serialization, which every SDK call goes through, for payloads like the
+ * ones the tests send: the app from {@link Tests#getApp}, the survey from {@link TestSurvey}, a participant, a
+ * schedule shaped like the one in Schedule2ScalingTest, a health data record and a batch of adherence records as
+ * AdherenceIngestionTest submits them. This isn't a JUnit test and needs no Bridge environment. Run it with
+ * {@code mvn test -Djmh}; the default arguments add the gc profiler, which reports bytes allocated per operation.
+ * Pass other JMH arguments with -Djmh.args.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModelSerializationBenchmark {
+    private static final DateTime CREATED_ON = DateTime.parse("2021-06-01T10:00:00.000Z");
+
+    @Param({ "App", "StudyParticipant", "Schedule2", "Survey", "HealthDataRecordEx3", "AdherenceRecordUpdates" })
+    public String model;
+
+    private Object payload;
+    private Class<?> type;
+    private String json;
+
+    @Setup
+    public void setup() throws Exception {
+        switch (model) {
+            case "App":
+                payload = Tests.getApp(TEST_APP_ID, 3L);
+                break;
+            case "StudyParticipant":
+                payload = makeParticipant();
+                break;
+            case "Schedule2":
+                payload = makeSchedule();
+                break;
+            case "Survey":
+                payload = TestSurvey.getSurvey(ModelSerializationBenchmark.class);
+                break;
+            case "HealthDataRecordEx3":
+                payload = makeRecord();
+                break;
+            case "AdherenceRecordUpdates":
+                payload = makeAdherenceRecords();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown model: " + model);
+        }
+        type = payload.getClass();
+        json = RestUtils.GSON.toJson(payload);
+    }
+
+    @Benchmark
+    public String serialize() {
+        return RestUtils.GSON.toJson(payload);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return RestUtils.GSON.fromJson(json, type);
+    }
+
+    private static StudyParticipant makeParticipant() {
+        StudyParticipant participant = new StudyParticipant();
+        participant.setFirstName("FirstName");
+        participant.setLastName("LastName");
+        participant.setEmail("bridge-testing+benchmark@sagebase.org");
+        participant.setPhone(Tests.PHONE);
+        participant.setSharingScope(ALL_QUALIFIED_RESEARCHERS);
+        participant.setNotifyByEmail(true);
+        participant.setDataGroups(ImmutableList.of("sdk-int-1", "sdk-int-2"));
+        participant.setLanguages(ImmutableList.of("en", "fr"));
+        participant.setAttributes(ImmutableMap.of("can_be_recontacted", "true"));
+        participant.setExternalIds(ImmutableMap.of(STUDY_ID_1, "external-id-1"));
+        participant.setCreatedOn(CREATED_ON);
+        return participant;
+    }
+
+    // Twenty weekly sessions with four windows each, in two study bursts.
+    private static Schedule2 makeSchedule() {
+        Schedule2 schedule = new Schedule2().name("Benchmark Schedule").duration("P2Y");
+        for (int i = 0; i < 2; i++) {
+            schedule.addStudyBurstsItem(new StudyBurst().identifier("burst" + i).originEventId("enrollment")
+                    .delay("P" + (i + 1) + "M").interval("P1W").occurrences(4).updateType(MUTABLE));
+        }
+        AssessmentReference2 ref = new AssessmentReference2().appId(TEST_APP_ID).guid("assessment-guid")
+                .identifier("assessment-id");
+        for (int i = 0; i < 20; i++) {
+            Session session = new Session()
+                    .name("Session " + i)
+                    .addStartEventIdsItem("enrollment")
+                    .interval("P1W")
+                    .performanceOrder(SEQUENTIAL)
+                    .addAssessmentsItem(ref)
+                    .addStudyBurstIdsItem("burst" + (i % 2));
+            for (int j = 0; j < 4; j++) {
+                session.addTimeWindowsItem(new TimeWindow().startTime(String.format("%02d:00", j * 6))
+                        .expiration("PT1H"));
+            }
+            schedule.addSessionsItem(session);
+        }
+        return schedule;
+    }
+
+    private static HealthDataRecordEx3 makeRecord() {
+        HealthDataRecordEx3 record = new HealthDataRecordEx3();
+        record.setId("record-id");
+        record.setClientInfo(Tests.getClientInfoWithVersion("Android", 20));
+        record.setCreatedOn(CREATED_ON);
+        record.setExported(false);
+        record.setHealthCode("health-code");
+        record.setStudyId(STUDY_ID_1);
+        for (int i = 0; i < 20; i++) {
+            record.putMetadataItem("key" + i, "value" + i);
+        }
+        return record;
+    }
+
+    // A batch as AdherenceIngestionTest sends it: 50 finished records.
+    private static AdherenceRecordUpdates makeAdherenceRecords() {
+        AdherenceRecordUpdates updates = new AdherenceRecordUpdates();
+        DateTime now = CREATED_ON.withZone(DateTimeZone.UTC);
+        for (int i = 0; i < 50; i++) {
+            updates.addRecordsItem(new AdherenceRecord().instanceGuid("instance-guid-" + i).eventTimestamp(now)
+                    .startedOn(now.plusMinutes(i)).finishedOn(now.plusMinutes(i + 1)));
+        }
+        return updates;
+    }
+}
@@ -11,6 +11,7 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
+import org.junit.experimental.categories.Category;
 import org.sagebionetworks.bridge.rest.api.AuthenticationApi;
 import org.sagebionetworks.bridge.rest.api.ForSuperadminsApi;
 import org.sagebionetworks.bridge.rest.api.ForWorkersApi;
@@ -26,6 +27,7 @@ import org.sagebionetworks.bridge.user.TestUserHelper;
 import com.google.common.collect.ImmutableList;
 
 @Ignore // For this test to pass, we'll need a second Synapse ID that can be assigned to the worker. 
+@Category(SerialTest.class)
 public class OAuthForWorkerTest {
     
     private TestUser admin;
@@ -0,0 +1,141 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.sagebionetworks.bridge.rest.model.Role.WORKER;
+import static org.sagebionetworks.bridge.util.IntegTestUtils.TEST_APP_ID;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.google.common.collect.ImmutableMap;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.RestUtils;
+import org.sagebionetworks.bridge.rest.api.ForAdminsApi;
+import org.sagebionetworks.bridge.rest.api.ForWorkersApi;
+import org.sagebionetworks.bridge.rest.api.ParticipantsApi;
+import org.sagebionetworks.bridge.rest.model.AccountSummarySearch;
+import org.sagebionetworks.bridge.rest.model.ParticipantData;
+import org.sagebionetworks.bridge.rest.model.SignUp;
+import org.sagebionetworks.bridge.user.TestUser;
+import org.sagebionetworks.bridge.user.TestUserHelper;
+
+/**
+ * Benchmarks {@link ParticipantDataExporter} over -Dload.users accounts with -Dload.recordsPerUser participant data
+ * records each. For every page size in -Dload.pageSizes the app is exported twice: streaming, where each record is
+ * serialized and dropped as it arrives, and collected, where every record is kept in a list until the end, as a
+ * caller that accumulates pages would. Each run logs records per second and the peak heap growth, which should stay
+ * flat for streaming as the data grows and rise with it for collecting. Set the fetcher threads with -Dload.fetchers
+ * and the bound on queued accounts with -Dload.queueCapacity.
+ */
+@Category(LoadTest.class)
+public class ParticipantDataExportTest {
+    private static final Logger LOG = LoggerFactory.getLogger(ParticipantDataExportTest.class);
+
+    private static final int USERS = Integer.getInteger("load.users", 50);
+    private static final int RECORDS_PER_USER = Integer.getInteger("load.recordsPerUser", 200);
+    private static final List<Integer> PAGE_SIZES = LoadTestRunner.intListProperty("load.pageSizes", "10,50,100");
+    private static final int FETCHERS = Integer.getInteger("load.fetchers", 10);
+    private static final int QUEUE_CAPACITY = Integer.getInteger("load.queueCapacity", 20);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 20);
+
+    private static TestUser admin;
+    private static TestUser worker;
+    private static String emailPrefix;
+    private static List<String> userIds;
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        admin = TestUserHelper.getSignedInAdmin();
+        worker = TestUserHelper.createAndSignInUser(ParticipantDataExportTest.class, false, WORKER);
+        emailPrefix = "bridge-testing+ParticipantDataExportTest-" + RandomStringUtils.randomAlphabetic(4) + "-";
+
+        ParticipantsApi participantsApi = admin.getClient(ParticipantsApi.class);
+        ForWorkersApi workersApi = worker.getClient(ForWorkersApi.class);
+        LoadTestRunner runner = new LoadTestRunner(CONCURRENCY);
+        userIds = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> indices = IntStream.range(0, USERS).boxed().collect(Collectors.toList());
+        int failures = runner.forEach(indices, (i, iteration) -> {
+            SignUp signUp = new SignUp().email(emailPrefix + i + "@sagebase.org");
+            String userId = runner.getRecorder().time("createParticipant",
+                    () -> participantsApi.createParticipant(signUp).execute().body().getIdentifier());
+            userIds.add(userId);
+            for (int record = 0; record < RECORDS_PER_USER; record++) {
+                String identifier = String.format("record-%05d", record);
+                ParticipantData data = new ParticipantData();
+                data.setData(ImmutableMap.of("index", String.valueOf(record), "userId", userId));
+                runner.getRecorder().time("saveDataForAdminWorker",
+                        () -> workersApi.saveDataForAdminWorker(TEST_APP_ID, userId, identifier, data).execute());
+            }
+        });
+        runner.getRecorder().logSummary(LOG);
+        assertEquals(0, failures);
+    }
+
+    @AfterClass
+    public static void afterClass() throws Exception {
+        if (userIds != null) {
+            ForAdminsApi adminsApi = admin.getClient(ForAdminsApi.class);
+            new LoadTestRunner(CONCURRENCY).forEach(userIds,
+                    (userId, i) -> adminsApi.deleteAllParticipantDataForAdmin(TEST_APP_ID, userId).execute());
+        }
+        if (emailPrefix != null) {
+            new TestAccountCleaner(admin).deleteAccounts(emailPrefix);
+        }
+        if (worker != null) {
+            worker.signOutAndDeleteUser();
+        }
+    }
+
+    @Test
+    public void exportAllParticipantData() throws Exception {
+        for (int pageSize : PAGE_SIZES) {
+            ParticipantDataExporter exporter = new ParticipantDataExporter(worker.getClient(ForWorkersApi.class),
+                    TEST_APP_ID, pageSize, FETCHERS, QUEUE_CAPACITY);
+
+            AtomicLong bytes = new AtomicLong();
+            measure("streaming", pageSize, () -> exporter.export(makeSearch(),
+                    (userId, identifier, data) -> bytes.addAndGet(RestUtils.GSON.toJson(data).getBytes(UTF_8).length)));
+            LOG.info("Streamed {} KB of participant data", bytes.get() / 1024);
+
+            List<ParticipantData> collected = Collections.synchronizedList(new ArrayList<>());
+            measure("collected", pageSize, () -> exporter.export(makeSearch(),
+                    (userId, identifier, data) -> collected.add(data)));
+            assertEquals(USERS * RECORDS_PER_USER, collected.size());
+        }
+    }
+
+    @FunctionalInterface
+    private interface Export {
+        long run() throws Exception;
+    }
+
+    private static void measure(String mode, int pageSize, Export export) throws Exception {
+        long baselineHeap = HeapUsage.resetPeak();
+        long start = System.nanoTime();
+        long records = export.run();
+        double seconds = (System.nanoTime() - start) / (double) TimeUnit.SECONDS.toNanos(1);
+        long peakHeapGrowth = HeapUsage.getPeak() - baselineHeap;
+
+        LOG.info("{} pageSize={}: {} records in {} s ({} records/s), peak heap growth {} MB", mode, pageSize,
+                records, String.format("%.1f", seconds), String.format("%.0f", records / seconds),
+                peakHeapGrowth / (1024 * 1024));
+        assertEquals((long) USERS * RECORDS_PER_USER, records);
+    }
+
+    private static AccountSummarySearch makeSearch() {
+        return new AccountSummarySearch().emailFilter(emailPrefix);
+    }
+}
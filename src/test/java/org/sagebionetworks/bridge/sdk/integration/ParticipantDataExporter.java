@@ -0,0 +1,127 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.sagebionetworks.bridge.rest.api.ForWorkersApi;
+import org.sagebionetworks.bridge.rest.model.AccountSummary;
+import org.sagebionetworks.bridge.rest.model.AccountSummaryList;
+import org.sagebionetworks.bridge.rest.model.AccountSummarySearch;
+import org.sagebionetworks.bridge.rest.model.ForwardCursorStringList;
+import org.sagebionetworks.bridge.rest.model.ParticipantData;
+
+/**
+ * Exports an app's participant data through the worker API without holding result sets in memory. The calling thread
+ * pages through the app's accounts and puts their IDs on a bounded queue. Fetcher threads take the IDs, page through
+ * each account's participant data identifiers with offset keys (as in ParticipantDataTest), and pass each record to
+ * the sink as soon as it is read. When the fetchers fall behind, the queue fills and account paging waits, so memory
+ * use depends on the queue capacity and page size, not on the size of the app.
+ */
+class ParticipantDataExporter {
+    /** Receives each record as it is read. Called from several fetcher threads at once. */
+    @FunctionalInterface
+    interface Sink {
+        void accept(String userId, String identifier, ParticipantData data) throws Exception;
+    }
+
+    private static final int ACCOUNT_PAGE_SIZE = 100;
+    // Tells a fetcher there are no more accounts.
+    private static final String END = "";
+
+    private final ForWorkersApi workersApi;
+    private final String appId;
+    private final int pageSize;
+    private final int fetchers;
+    private final int queueCapacity;
+
+    ParticipantDataExporter(ForWorkersApi workersApi, String appId, int pageSize, int fetchers, int queueCapacity) {
+        this.workersApi = workersApi;
+        this.appId = appId;
+        this.pageSize = pageSize;
+        this.fetchers = fetchers;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Exports the participant data of every account the search matches, and returns the number of records. If a
+     * fetcher fails, the other accounts are skipped and the first failure is thrown.
+     */
+    long export(AccountSummarySearch search, Sink sink) throws Exception {
+        BlockingQueue<String> userIds = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicLong records = new AtomicLong();
+        AtomicReference<Exception> failure = new AtomicReference<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(fetchers);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < fetchers; i++) {
+                futures.add(executor.submit(() -> {
+                    for (String userId = userIds.take(); !END.equals(userId); userId = userIds.take()) {
+                        // After a failure, keep taking IDs so account paging never blocks on a full queue.
+                        if (failure.get() == null) {
+                            try {
+                                records.addAndGet(exportAccount(userId, sink));
+                            } catch (Exception e) {
+                                failure.compareAndSet(null, e);
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+
+            int offset = 0;
+            AccountSummaryList page;
+            do {
+                search.offsetBy(offset).pageSize(ACCOUNT_PAGE_SIZE);
+                page = workersApi.searchAccountSummariesForApp(appId, search).execute().body();
+                for (AccountSummary summary : page.getItems()) {
+                    userIds.put(summary.getId());
+                }
+                offset += page.getItems().size();
+            } while (failure.get() == null && !page.getItems().isEmpty() && offset < page.getTotal());
+        } finally {
+            for (int i = 0; i < fetchers; i++) {
+                userIds.put(END);
+            }
+            try {
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } catch (ExecutionException e) {
+                failure.compareAndSet(null, new RuntimeException(e.getCause()));
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        return records.get();
+    }
+
+    private long exportAccount(String userId, Sink sink) throws Exception {
+        long count = 0;
+        String offsetKey = null;
+        do {
+            ForwardCursorStringList page = workersApi.getAllDataForAdminWorker(appId, userId, offsetKey, pageSize)
+                    .execute().body();
+            for (String identifier : page.getItems()) {
+                ParticipantData data = workersApi.getDataByIdentifierForAdminWorker(appId, userId, identifier)
+                        .execute().body();
+                sink.accept(userId, identifier, data);
+                count++;
+            }
+            offsetKey = page.getNextPageOffsetKey();
+        } while (offsetKey != null);
+        return count;
+    }
+}
@@ -0,0 +1,272 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.json.DefaultObjectMapper;
+import org.sagebionetworks.bridge.rest.api.ForConsentedUsersApi;
+import org.sagebionetworks.bridge.rest.exceptions.BridgeSDKException;
+import org.sagebionetworks.bridge.rest.model.ParticipantFile;
+import org.sagebionetworks.bridge.user.TestUser;
+import org.sagebionetworks.bridge.user.TestUserHelper;
+
+/**
+ * Characterizes the participant file download rate limit that {@link ParticipantFileTest} checks with two calls.
+ * Every participant uploads a file of each size in -Dload.fileSizesKb. Then, for each size, all participants at once:
+ * <ul>
+ *     <li>download back to back until the first 429, which gives the bucket's capacity;</li>
+ *     <li>retry every -Dload.pollMillis until a download succeeds again, which gives the recovery time;</li>
+ *     <li>empty the bucket, wait -Dload.refillSeconds and count the downloads that then succeed back to back, which
+ *     gives the refill rate (a lower bound when it equals the capacity);</li>
+ *     <li>download at each steady rate in -Dload.rates (per participant per second) for -Dload.windowSeconds, which
+ *     gives the share of requests that get a 429.</li>
+ * </ul>
+ * The bucket is left idle for -Dload.idleSeconds before each measurement. A burst stops after -Dload.maxBurst
+ * downloads. A participant who gets no 429 by then is reported as capped: their capacity is only a lower bound, and
+ * recovery and refill aren't measured for them. The configuration and results are written to -Dload.report.file
+ * (default target/participant-file-rate-limits.json) so runs can be compared.
+ */
+@Category(LoadTest.class)
+public class ParticipantFileRateLimitTest {
+    private static final Logger LOG = LoggerFactory.getLogger(ParticipantFileRateLimitTest.class);
+
+    private static final int USERS = Integer.getInteger("load.users", 10);
+    private static final List<Integer> FILE_SIZES_KB = LoadTestRunner.intListProperty("load.fileSizesKb", "1,100,1000");
+    private static final List<Double> RATES = LoadTestRunner.doubleListProperty("load.rates", "0.2,0.5,1,2,5");
+    private static final int WINDOW_SECONDS = Integer.getInteger("load.windowSeconds", 20);
+    private static final int IDLE_SECONDS = Integer.getInteger("load.idleSeconds", 10);
+    private static final int REFILL_SECONDS = Integer.getInteger("load.refillSeconds", 5);
+    private static final int POLL_MILLIS = Integer.getInteger("load.pollMillis", 100);
+    private static final int MAX_BURST = Integer.getInteger("load.maxBurst", 50);
+    private static final String REPORT_FILE = System.getProperty("load.report.file",
+            "target/participant-file-rate-limits.json");
+
+    // One participant's results for one file size.
+    private static class Probe {
+        int capacity;
+        // No 429 within MAX_BURST downloads, so capacity is a lower bound and nothing else was measured.
+        boolean capped;
+        long recoveryMillis;
+        double refillPerSecond;
+    }
+
+    private static List<TestUser> users;
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        LoadTestRunner runner = new LoadTestRunner(USERS);
+        users = runner.createUsers(USERS,
+                () -> TestUserHelper.createAndSignInUser(ParticipantFileRateLimitTest.class, true));
+        int failures = runner.forEach(users, (user, i) -> {
+            for (int kb : FILE_SIZES_KB) {
+                upload(user, fileId(kb), kb * 1024);
+            }
+        });
+        assertEquals(0, failures);
+    }
+
+    @AfterClass
+    public static void afterClass() throws Exception {
+        if (users != null) {
+            // Let the buckets refill so the deletes aren't throttled.
+            Thread.sleep(TimeUnit.SECONDS.toMillis(IDLE_SECONDS));
+            new LoadTestRunner(USERS).forEach(users, (user, i) -> {
+                ForConsentedUsersApi userApi = user.getClient(ForConsentedUsersApi.class);
+                for (int kb : FILE_SIZES_KB) {
+                    userApi.deleteParticipantFile(fileId(kb)).execute();
+                }
+                user.signOutAndDeleteUser();
+            });
+        }
+    }
+
+    @Test
+    public void characterizeRateLimit() throws Exception {
+        ObjectNode report = DefaultObjectMapper.INSTANCE.createObjectNode();
+        ObjectNode config = report.putObject("config");
+        config.put("users", USERS);
+        config.put("windowSeconds", WINDOW_SECONDS);
+        config.put("idleSeconds", IDLE_SECONDS);
+        config.put("refillSeconds", REFILL_SECONDS);
+        config.put("pollMillis", POLL_MILLIS);
+        config.put("maxBurst", MAX_BURST);
+        ArrayNode sizes = report.putArray("fileSizes");
+
+        for (int kb : FILE_SIZES_KB) {
+            String fileId = fileId(kb);
+            ObjectNode sizeNode = sizes.addObject();
+            sizeNode.put("kilobytes", kb);
+
+            Thread.sleep(TimeUnit.SECONDS.toMillis(IDLE_SECONDS));
+            List<Probe> probes = Collections.synchronizedList(new ArrayList<>());
+            int failures = new LoadTestRunner(USERS).forEach(users, (user, i) -> probes.add(probe(user, fileId)));
+            assertEquals(0, failures);
+            List<Probe> limited = probes.stream().filter(probe -> !probe.capped).collect(Collectors.toList());
+            int capped = probes.size() - limited.size();
+            sizeNode.put("cappedParticipants", capped);
+            putDistribution(sizeNode.putObject("capacity"),
+                    probes.stream().map(probe -> (double) probe.capacity).collect(Collectors.toList()));
+            if (capped > 0) {
+                LOG.warn("{} KB: {} of {} participants got no 429 in {} downloads. Capacity is at least {}; raise "
+                        + "-Dload.maxBurst to measure it.", kb, capped, probes.size(), MAX_BURST, MAX_BURST);
+            }
+            if (!limited.isEmpty()) {
+                putDistribution(sizeNode.putObject("recoveryMillis"),
+                        limited.stream().map(probe -> (double) probe.recoveryMillis).collect(Collectors.toList()));
+                putDistribution(sizeNode.putObject("refillPerSecond"),
+                        limited.stream().map(probe -> probe.refillPerSecond).collect(Collectors.toList()));
+                LOG.info("{} KB: capacity {}, recovery {} ms, refill {}/s (median of {} throttled participants)", kb,
+                        sizeNode.get("capacity").get("median"), sizeNode.get("recoveryMillis").get("median"),
+                        sizeNode.get("refillPerSecond").get("median"), limited.size());
+            }
+
+            ArrayNode rates = sizeNode.putArray("rates");
+            for (double rate : RATES) {
+                Thread.sleep(TimeUnit.SECONDS.toMillis(IDLE_SECONDS));
+                sweep(fileId, rate, rates.addObject(), String.format("%5d KB at %4.1f/s", kb, rate));
+            }
+        }
+
+        File file = new File(REPORT_FILE);
+        File dir = file.getAbsoluteFile().getParentFile();
+        if (dir != null && !dir.exists() && !dir.mkdirs()) {
+            throw new IOException("Could not create directory " + dir);
+        }
+        DefaultObjectMapper.INSTANCE.writerWithDefaultPrettyPrinter().writeValue(file, report);
+        LOG.info("Wrote participant file rate limits to {}", file.getAbsolutePath());
+    }
+
+    private static Probe probe(TestUser user, String fileId) throws Exception {
+        Probe probe = new Probe();
+        probe.capacity = burst(user, fileId);
+        if (probe.capacity == MAX_BURST) {
+            // Not throttled yet. A recovery loop would only time one successful download.
+            probe.capped = true;
+            return probe;
+        }
+
+        long throttledAt = System.nanoTime();
+        while (download(user, fileId) == 429) {
+            Thread.sleep(POLL_MILLIS);
+        }
+        probe.recoveryMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - throttledAt);
+
+        burst(user, fileId);
+        Thread.sleep(TimeUnit.SECONDS.toMillis(REFILL_SECONDS));
+        probe.refillPerSecond = burst(user, fileId) / (double) REFILL_SECONDS;
+        return probe;
+    }
+
+    // Downloads back to back until the first 429, or MAX_BURST successes, and returns how many succeeded.
+    private static int burst(TestUser user, String fileId) throws IOException {
+        int successes = 0;
+        while (successes < MAX_BURST && download(user, fileId) == 200) {
+            successes++;
+        }
+        return successes;
+    }
+
+    // Every participant downloads at the rate for the window, all at once.
+    private static void sweep(String fileId, double rate, ObjectNode node, String name) throws Exception {
+        AtomicInteger successes = new AtomicInteger();
+        AtomicInteger throttled = new AtomicInteger();
+        LatencyRecorder recorder = new LatencyRecorder();
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        int requests = Math.max(1, (int) (rate * WINDOW_SECONDS));
+
+        int failures = new LoadTestRunner(USERS).forEach(users, (user, i) -> {
+            long start = System.nanoTime();
+            for (int j = 0; j < requests; j++) {
+                long wait = start + j * intervalNanos - System.nanoTime();
+                if (wait > 0) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                }
+                long callStart = System.nanoTime();
+                int status = download(user, fileId);
+                recorder.record(name, System.nanoTime() - callStart, status == 200);
+                (status == 200 ? successes : throttled).incrementAndGet();
+            }
+        });
+        assertEquals(0, failures);
+
+        int total = successes.get() + throttled.get();
+        double throttledRatio = throttled.get() / (double) total;
+        LatencyRecorder.Stats stats = recorder.getStats(name);
+        node.put("perSecond", rate);
+        node.put("requests", total);
+        node.put("successes", successes.get());
+        node.put("throttled", throttled.get());
+        node.put("throttledRatio", throttledRatio);
+        node.put("p50Millis", stats.getP50());
+        node.put("p95Millis", stats.getP95());
+        LOG.info("{}: {} requests, {}% throttled, p50 {} ms", name, total,
+                String.format("%.1f", throttledRatio * 100), String.format("%.1f", stats.getP50()));
+    }
+
+    // Returns 200, or 429 if throttled. Any other error is thrown.
+    private static int download(TestUser user, String fileId) throws IOException {
+        try (ResponseBody body = user.getClient(ForConsentedUsersApi.class).getParticipantFile(fileId).execute()
+                .body()) {
+            body.bytes();
+            return 200;
+        } catch (BridgeSDKException e) {
+            if (e.getStatusCode() == 429) {
+                return 429;
+            }
+            throw e;
+        }
+    }
+
+    private static void upload(TestUser user, String fileId, int bytes) throws IOException {
+        ParticipantFile file = new ParticipantFile();
+        file.setMimeType("text/plain");
+        ParticipantFile keys = user.getClient(ForConsentedUsersApi.class).createParticipantFile(fileId, file)
+                .execute().body();
+
+        byte[] content = new byte[bytes];
+        Arrays.fill(content, (byte) 'A');
+        Request request = new Request.Builder().url(keys.getUploadUrl())
+                .put(RequestBody.create(MediaType.parse("text/plain"), content))
+                .build();
+        try (Response response = SharedHttpClients.getOkHttpClient().newCall(request).execute()) {
+            if (!response.isSuccessful()) {
+                throw new IOException("Upload of " + fileId + " failed with " + response.code());
+            }
+        }
+    }
+
+    private static void putDistribution(ObjectNode node, List<Double> values) {
+        List<Double> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        node.put("min", sorted.get(0));
+        node.put("median", sorted.get(sorted.size() / 2));
+        node.put("max", sorted.get(sorted.size() - 1));
+    }
+
+    private static String fileId(int kilobytes) {
+        return "rate-limit-" + kilobytes + "kb";
+    }
+}
@@ -0,0 +1,155 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static org.joda.time.DateTimeZone.UTC;
+import static org.junit.Assert.assertEquals;
+import static org.sagebionetworks.bridge.rest.model.PerformanceOrder.SEQUENTIAL;
+import static org.sagebionetworks.bridge.rest.model.Role.DEVELOPER;
+import static org.sagebionetworks.bridge.sdk.integration.Tests.STUDY_ID_1;
+import static org.sagebionetworks.bridge.util.IntegTestUtils.TEST_APP_ID;
+
+import java.io.File;
+import java.util.List;
+import java.util.Locale;
+
+import org.joda.time.DateTime;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.RestUtils;
+import org.sagebionetworks.bridge.rest.api.AssessmentsApi;
+import org.sagebionetworks.bridge.rest.api.ForConsentedUsersApi;
+import org.sagebionetworks.bridge.rest.api.ForDevelopersApi;
+import org.sagebionetworks.bridge.rest.api.SchedulesV2Api;
+import org.sagebionetworks.bridge.rest.model.AdherenceRecord;
+import org.sagebionetworks.bridge.rest.model.AdherenceRecordUpdates;
+import org.sagebionetworks.bridge.rest.model.Assessment;
+import org.sagebionetworks.bridge.rest.model.AssessmentReference2;
+import org.sagebionetworks.bridge.rest.model.Schedule2;
+import org.sagebionetworks.bridge.rest.model.Session;
+import org.sagebionetworks.bridge.rest.model.Study;
+import org.sagebionetworks.bridge.rest.model.TimeWindow;
+import org.sagebionetworks.bridge.rest.model.Timeline;
+import org.sagebionetworks.bridge.rest.model.UploadRequest;
+import org.sagebionetworks.bridge.rest.model.UploadSession;
+import org.sagebionetworks.bridge.user.TestUser;
+import org.sagebionetworks.bridge.user.TestUserHelper;
+
+/**
+ * Drives many concurrent participants through the calls a mobile app makes on launch: sign in, fetch the schedule
+ * and timeline, write adherence, and upload a file. Reports throughput and p50/p95/p99 latency per endpoint. Size
+ * the run with -Dload.users, -Dload.concurrency and -Dload.iterations.
+ */
+@Category(LoadTest.class)
+public class ParticipantLoadTest {
+    private static final Logger LOG = LoggerFactory.getLogger(ParticipantLoadTest.class);
+
+    private static final int USERS = Integer.getInteger("load.users", 10);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 10);
+    private static final int ITERATIONS = Integer.getInteger("load.iterations", 3);
+    private static final String TIME_ZONE = "America/Los_Angeles";
+
+    private static TestUser admin;
+    private static TestUser developer;
+    private static Assessment assessment;
+    private static Schedule2 schedule;
+    private static LoadTestRunner runner;
+    private static List<TestUser> users;
+    private static File uploadFile;
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        admin = TestUserHelper.getSignedInAdmin();
+        developer = TestUserHelper.createAndSignInUser(ParticipantLoadTest.class, false, DEVELOPER);
+        ForDevelopersApi developersApi = developer.getClient(ForDevelopersApi.class);
+
+        // If there's a schedule associated to study 1, we need to delete it.
+        Study study = developersApi.getStudy(STUDY_ID_1).execute().body();
+        if (study.getScheduleGuid() != null) {
+            admin.getClient(SchedulesV2Api.class).deleteSchedule(study.getScheduleGuid()).execute();
+        }
+
+        assessment = new Assessment()
+                .phase(Assessment.PhaseEnum.DRAFT)
+                .identifier(Tests.randomIdentifier(ParticipantLoadTest.class))
+                .osName("Universal")
+                .ownerId(developer.getSession().getOrgMembership())
+                .title("Load Test Assessment");
+        assessment = developer.getClient(AssessmentsApi.class).createAssessment(assessment).execute().body();
+
+        Session session = new Session()
+                .name("Daily session")
+                .addStartEventIdsItem("enrollment")
+                .interval("P1D")
+                .performanceOrder(SEQUENTIAL)
+                .addAssessmentsItem(new AssessmentReference2().appId(TEST_APP_ID)
+                        .identifier(assessment.getIdentifier()).guid(assessment.getGuid()))
+                .addTimeWindowsItem(new TimeWindow().startTime("08:00").expiration("PT6H"));
+        schedule = new Schedule2().name("Load Test Schedule").duration("P4W").addSessionsItem(session);
+        schedule = developersApi.saveScheduleForStudy(STUDY_ID_1, schedule).execute().body();
+
+        runner = new LoadTestRunner(CONCURRENCY);
+        users = runner.createUsers(USERS,
+                () -> Tests.instrument(TestUserHelper.createAndSignInUser(ParticipantLoadTest.class, true)));
+
+        String envName = admin.getClientManager().getConfig().getEnvironment().name().toLowerCase(Locale.ENGLISH);
+        uploadFile = new File("src/test/resources/upload-test/" + envName + "/schemaless-encrypted");
+    }
+
+    @AfterClass
+    public static void afterClass() throws Exception {
+        if (users != null) {
+            runner.forEach(users, (user, i) -> user.signOutAndDeleteUser());
+        }
+        if (schedule != null && schedule.getGuid() != null) {
+            admin.getClient(SchedulesV2Api.class).deleteSchedule(schedule.getGuid()).execute();
+        }
+        if (assessment != null && assessment.getGuid() != null) {
+            admin.getClient(AssessmentsApi.class).deleteAssessment(assessment.getGuid(), true).execute();
+        }
+        if (developer != null) {
+            developer.signOutAndDeleteUser();
+        }
+    }
+
+    @Test
+    public void appLaunch() throws Exception {
+        // A runner of its own, so user creation isn't in the summary or the throughput window.
+        LoadTestRunner appLaunchRunner = new LoadTestRunner(CONCURRENCY);
+        LatencyRecorder recorder = appLaunchRunner.getRecorder();
+        int failures = appLaunchRunner.run(users, ITERATIONS, (user, iteration) -> {
+            recorder.time("signIn", user::signInAgain);
+
+            ForConsentedUsersApi usersApi = user.getClient(ForConsentedUsersApi.class);
+            recorder.time("getParticipantScheduleForSelf",
+                    () -> usersApi.getParticipantScheduleForSelf(STUDY_ID_1, TIME_ZONE).execute());
+            Timeline timeline = recorder.time("getTimelineForSelf",
+                    () -> usersApi.getTimelineForSelf(STUDY_ID_1, null).execute().body());
+
+            // The key of an adherence record includes the startedOn timestamp, so every iteration writes a new record.
+            String instanceGuid = timeline.getSchedule().get(0).getAssessments().get(0).getInstanceGuid();
+            DateTime now = DateTime.now(UTC);
+            AdherenceRecord record = new AdherenceRecord().instanceGuid(instanceGuid).eventTimestamp(now)
+                    .startedOn(now).finishedOn(now.plusMinutes(5));
+            recorder.time("updateAdherenceRecords", () -> usersApi.updateAdherenceRecords(STUDY_ID_1,
+                    new AdherenceRecordUpdates().addRecordsItem(record)).execute());
+
+            UploadRequest request = RestUtils.makeUploadRequestForFile(uploadFile);
+            UploadSession uploadSession = recorder.time("requestUploadSession",
+                    () -> usersApi.requestUploadSession(request).execute().body());
+            recorder.time("uploadToS3", () -> {
+                RestUtils.uploadToS3(uploadFile, uploadSession.getUrl());
+                return null;
+            });
+            recorder.time("completeUploadSession",
+                    () -> usersApi.completeUploadSession(uploadSession.getId(), false, false).execute());
+        });
+
+        LOG.info("Load test: {} users, {} iterations, concurrency {}", users.size(), ITERATIONS, CONCURRENCY);
+        recorder.logSummary(LOG);
+        assertEquals(0, failures);
+    }
+}
@@ -28,6 +28,7 @@ import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.junit.experimental.categories.Category;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -92,6 +93,7 @@ import java.util.Map;
 import java.util.stream.Collectors;
 
 @SuppressWarnings({ "ConstantConditions", "Guava" })
+@Category(SerialTest.class)
 public class ParticipantsTest {
     private TestUser admin;
     private TestUser developer;
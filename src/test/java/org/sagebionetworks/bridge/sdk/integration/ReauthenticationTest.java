@@ -14,6 +14,7 @@ import org.junit.AfterClass;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.junit.experimental.categories.Category;
 import org.sagebionetworks.bridge.rest.api.AuthenticationApi;
 import org.sagebionetworks.bridge.rest.api.ForConsentedUsersApi;
 import org.sagebionetworks.bridge.rest.api.ForSuperadminsApi;
@@ -27,7 +28,6 @@ import org.sagebionetworks.bridge.user.TestUser;
 import org.sagebionetworks.bridge.user.TestUserHelper;
 
 import okhttp3.MediaType;
-import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 
@@ -39,6 +39,7 @@ import okhttp3.RequestBody;
  * - the token is invalidated when you sign out of the server
  * - if it's wrong, you get a 404 (no indication whether the email is in system or not) 
  */
+@Category(SerialTest.class)
 public class ReauthenticationTest {
 
     private static final int REAUTH_CACHE_IN_MILLIS = 15000;
@@ -95,8 +96,7 @@ public class ReauthenticationTest {
                 .post(body)
                 .url(user.getClientManager().getHostUrl()+"/v3/auth/signOut")
                 .build();
-        OkHttpClient client = new OkHttpClient.Builder().build();        
-        client.newCall(request).execute();
+        SharedHttpClients.getOkHttpClient().newCall(request).execute().close();
 
         usersApi.getActivityEvents().execute().body();
     }
@@ -0,0 +1,174 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static org.sagebionetworks.bridge.rest.model.ActivityEventUpdateType.MUTABLE;
+import static org.sagebionetworks.bridge.rest.model.PerformanceOrder.SEQUENTIAL;
+import static org.sagebionetworks.bridge.rest.model.Role.DEVELOPER;
+import static org.sagebionetworks.bridge.rest.model.Role.STUDY_DESIGNER;
+import static org.sagebionetworks.bridge.sdk.integration.Tests.STUDY_ID_1;
+import static org.sagebionetworks.bridge.util.IntegTestUtils.SAGE_ID;
+import static org.sagebionetworks.bridge.util.IntegTestUtils.TEST_APP_ID;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.RestUtils;
+import org.sagebionetworks.bridge.rest.api.AssessmentsApi;
+import org.sagebionetworks.bridge.rest.api.ForConsentedUsersApi;
+import org.sagebionetworks.bridge.rest.api.SchedulesV2Api;
+import org.sagebionetworks.bridge.rest.api.StudiesApi;
+import org.sagebionetworks.bridge.rest.model.Assessment;
+import org.sagebionetworks.bridge.rest.model.AssessmentReference2;
+import org.sagebionetworks.bridge.rest.model.ParticipantSchedule;
+import org.sagebionetworks.bridge.rest.model.Schedule2;
+import org.sagebionetworks.bridge.rest.model.Session;
+import org.sagebionetworks.bridge.rest.model.Study;
+import org.sagebionetworks.bridge.rest.model.StudyBurst;
+import org.sagebionetworks.bridge.rest.model.TimeWindow;
+import org.sagebionetworks.bridge.rest.model.Timeline;
+import org.sagebionetworks.bridge.user.TestUser;
+import org.sagebionetworks.bridge.user.TestUserHelper;
+
+/**
+ * Measures how getTimelineForStudy and getParticipantScheduleForSelf scale with the size of the schedule. For each
+ * size in -Dload.sessions (comma-separated session counts), generates a schedule with that many sessions, each with
+ * -Dload.timeWindows time windows, over -Dload.duration, with -Dload.studyBursts study bursts, then times the first
+ * (uncached) and later calls and logs the size of the response.
+ */
+@Category(LoadTest.class)
+public class Schedule2ScalingTest {
+    private static final Logger LOG = LoggerFactory.getLogger(Schedule2ScalingTest.class);
+
+    private static final List<Integer> SESSION_COUNTS =
+            LoadTestRunner.intListProperty("load.sessions", "1,10,50,100,250");
+    private static final int TIME_WINDOWS = Integer.getInteger("load.timeWindows", 4);
+    private static final String DURATION = System.getProperty("load.duration", "P2Y");
+    private static final int STUDY_BURSTS = Integer.getInteger("load.studyBursts", 5);
+    private static final int ITERATIONS = Integer.getInteger("load.iterations", 5);
+    private static final String TIME_ZONE = "America/Los_Angeles";
+
+    private static TestUser admin;
+    private static TestUser developer;
+    private static TestUser studyDesigner;
+    private static TestUser user;
+    private static Assessment assessment;
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        admin = TestUserHelper.getSignedInAdmin();
+        developer = TestUserHelper.createAndSignInUser(Schedule2ScalingTest.class, false, DEVELOPER);
+        studyDesigner = TestUserHelper.createAndSignInUser(Schedule2ScalingTest.class, false, STUDY_DESIGNER);
+        user = TestUserHelper.createAndSignInUser(Schedule2ScalingTest.class, true);
+
+        assessment = new Assessment()
+                .phase(Assessment.PhaseEnum.DRAFT)
+                .identifier(Tests.randomIdentifier(Schedule2ScalingTest.class))
+                .osName("Universal")
+                .ownerId(SAGE_ID)
+                .title("Schedule Scaling Assessment");
+        assessment = developer.getClient(AssessmentsApi.class).createAssessment(assessment).execute().body();
+    }
+
+    @AfterClass
+    public static void afterClass() throws Exception {
+        if (assessment != null && assessment.getGuid() != null) {
+            admin.getClient(AssessmentsApi.class).deleteAssessment(assessment.getGuid(), true).execute();
+        }
+        if (user != null) {
+            user.signOutAndDeleteUser();
+        }
+        if (studyDesigner != null) {
+            studyDesigner.signOutAndDeleteUser();
+        }
+        if (developer != null) {
+            developer.signOutAndDeleteUser();
+        }
+    }
+
+    @After
+    public void after() throws Exception {
+        deleteSchedule();
+    }
+
+    @Test
+    public void timelineScaling() throws Exception {
+        SchedulesV2Api schedulesApi = studyDesigner.getClient(SchedulesV2Api.class);
+        ForConsentedUsersApi usersApi = user.getClient(ForConsentedUsersApi.class);
+        LatencyRecorder recorder = new LatencyRecorder();
+
+        for (int sessionCount : SESSION_COUNTS) {
+            deleteSchedule();
+            recorder.time(key("saveScheduleForStudy", sessionCount),
+                    () -> schedulesApi.saveScheduleForStudy(STUDY_ID_1, makeSchedule(sessionCount)).execute().body());
+
+            // The first call builds the timeline; later calls may be served from the server's cache.
+            Timeline timeline = recorder.time(key("getTimelineForStudy (first)", sessionCount),
+                    () -> schedulesApi.getTimelineForStudy(STUDY_ID_1).execute().body());
+            ParticipantSchedule participantSchedule = recorder.time(
+                    key("getParticipantScheduleForSelf (first)", sessionCount),
+                    () -> usersApi.getParticipantScheduleForSelf(STUDY_ID_1, TIME_ZONE).execute().body());
+            for (int i = 0; i < ITERATIONS; i++) {
+                recorder.time(key("getTimelineForStudy", sessionCount),
+                        () -> schedulesApi.getTimelineForStudy(STUDY_ID_1).execute());
+                recorder.time(key("getParticipantScheduleForSelf", sessionCount),
+                        () -> usersApi.getParticipantScheduleForSelf(STUDY_ID_1, TIME_ZONE).execute());
+            }
+
+            LOG.info("{} sessions x {} windows over {}, {} bursts: timeline has {} scheduled sessions, {} KB; " +
+                    "participant schedule has {} scheduled sessions, {} KB", sessionCount, TIME_WINDOWS, DURATION,
+                    STUDY_BURSTS, timeline.getSchedule().size(), jsonKilobytes(timeline),
+                    participantSchedule.getSchedule().size(), jsonKilobytes(participantSchedule));
+        }
+        recorder.logSummary(LOG);
+    }
+
+    private static Schedule2 makeSchedule(int sessionCount) {
+        Schedule2 schedule = new Schedule2().name("Scaling Test Schedule").duration(DURATION);
+        for (int i = 0; i < STUDY_BURSTS; i++) {
+            schedule.addStudyBurstsItem(new StudyBurst().identifier("burst" + i).originEventId("enrollment")
+                    .delay("P" + (i + 1) + "M").interval("P1W").occurrences(4).updateType(MUTABLE));
+        }
+        AssessmentReference2 ref = new AssessmentReference2().appId(TEST_APP_ID).guid(assessment.getGuid())
+                .identifier(assessment.getIdentifier());
+        for (int i = 0; i < sessionCount; i++) {
+            Session session = new Session()
+                    .name("Session " + i)
+                    .addStartEventIdsItem("enrollment")
+                    .interval("P1W")
+                    .performanceOrder(SEQUENTIAL)
+                    .addAssessmentsItem(ref);
+            // Every window starts at a different time of day, an hour long.
+            for (int j = 0; j < TIME_WINDOWS; j++) {
+                session.addTimeWindowsItem(new TimeWindow().startTime(String.format("%02d:00", j * 24 / TIME_WINDOWS))
+                        .expiration("PT1H"));
+            }
+            if (STUDY_BURSTS > 0) {
+                session.addStudyBurstIdsItem("burst" + (i % STUDY_BURSTS));
+            }
+            schedule.addSessionsItem(session);
+        }
+        return schedule;
+    }
+
+    private static void deleteSchedule() throws Exception {
+        Study study = admin.getClient(StudiesApi.class).getStudy(STUDY_ID_1).execute().body();
+        if (study.getScheduleGuid() != null) {
+            admin.getClient(SchedulesV2Api.class).deleteSchedule(study.getScheduleGuid()).execute();
+        }
+    }
+
+    private static String key(String call, int sessionCount) {
+        return String.format("%s sessions=%04d", call, sessionCount);
+    }
+
+    private static long jsonKilobytes(Object object) {
+        return RestUtils.GSON.toJson(object).getBytes(StandardCharsets.UTF_8).length / 1024;
+    }
+}
@@ -37,6 +37,7 @@ import org.joda.time.DateTime;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.junit.experimental.categories.Category;
 import org.sagebionetworks.bridge.rest.api.AssessmentsApi;
 import org.sagebionetworks.bridge.rest.api.ForAdminsApi;
 import org.sagebionetworks.bridge.rest.api.ForConsentedUsersApi;
@@ -82,6 +83,7 @@ import com.google.common.net.HttpHeaders;
 
 import retrofit2.Response;
 
+@Category(SerialTest.class)
 public class Schedule2Test {
     private static final ImmutableList<Label> LABELS = ImmutableList.of(new Label().lang("en").value("English"),
             new Label().lang("fr").value("French"));
@@ -11,6 +11,7 @@ import com.google.common.collect.ImmutableList;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.junit.experimental.categories.Category;
 
 import org.sagebionetworks.bridge.rest.api.AppsApi;
 import org.sagebionetworks.bridge.rest.api.ForAdminsApi;
@@ -36,6 +37,7 @@ import org.sagebionetworks.bridge.rest.model.VersionHolder;
 import org.sagebionetworks.bridge.user.TestUser;
 import org.sagebionetworks.bridge.user.TestUserHelper;
 
+@Category(SerialTest.class)
 public class ScheduleActivityOnceTest {
     private static final String FILTERED_LABEL = "ScheduleActivityOnceTest";
     private TestUser admin;
@@ -58,7 +58,7 @@ import org.sagebionetworks.bridge.rest.model.UploadSchemaType;
 import org.sagebionetworks.bridge.user.TestUser;
 import org.sagebionetworks.bridge.user.TestUserHelper;
 
-@Category(IntegrationSmokeTest.class)
+@Category({IntegrationSmokeTest.class, SerialTest.class})
 @SuppressWarnings("ConstantConditions")
 public class ScheduledActivityTest {
     
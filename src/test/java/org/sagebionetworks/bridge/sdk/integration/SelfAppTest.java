@@ -8,6 +8,7 @@ import static org.sagebionetworks.bridge.rest.model.Role.RESEARCHER;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.junit.experimental.categories.Category;
 
 import org.sagebionetworks.bridge.rest.api.AppsApi;
 import org.sagebionetworks.bridge.rest.exceptions.UnauthorizedException;
@@ -15,6 +16,7 @@ import org.sagebionetworks.bridge.rest.model.App;
 import org.sagebionetworks.bridge.user.TestUser;
 import org.sagebionetworks.bridge.user.TestUserHelper;
 
+@Category(SerialTest.class)
 public class SelfAppTest {
 
     private TestUser admin;
@@ -0,0 +1,11 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+/**
+ * JUnit category for test classes that change state shared by the whole test run (the API app's settings, the
+ * schedules of study1 and study2, the required subpopulation, or app-wide lists whose size the test asserts). In the
+ * parallel-tests profile these run in a single fork after the parallel phase, so they can't interfere with other
+ * classes.
+ */
+public interface SerialTest {
+
+}
@@ -0,0 +1,267 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.net.Socket;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocketFactory;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.TrustManagerFactory;
+import javax.net.ssl.X509TrustManager;
+
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.ConnectionPool;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.config.ConnectionConfig;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.HttpConnectionFactory;
+import org.apache.http.conn.ManagedHttpClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.ManagedHttpClientConnectionFactory;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.ssl.SSLContexts;
+import org.slf4j.Logger;
+import retrofit2.Retrofit;
+
+/**
+ * HTTP clients shared by every test. Every test shares one OkHttp client and one Apache HttpClient, each with a bounded
+ * pool of keep-alive connections, instead of building a new client (and doing a new TLS handshake) per test. SDK API
+ * clients are moved onto the OkHttp pool with {@link #share(Retrofit, Interceptor...)}. Pool hits and misses and connect and TLS
+ * handshake times are logged after the run. Size the pools with -Dhttp.pool.size.
+ */
+public class SharedHttpClients {
+    private static final int POOL_SIZE = Integer.getInteger("http.pool.size", 20);
+    private static final long KEEP_ALIVE_MINUTES = 5;
+    // A pooled Apache connection idle for longer than this is checked before reuse, in case the server closed it.
+    private static final int VALIDATE_AFTER_INACTIVITY_MILLIS = 2000;
+
+    private static final AtomicLong OK_HTTP_HITS = new AtomicLong();
+    private static final AtomicLong OK_HTTP_MISSES = new AtomicLong();
+    private static final AtomicLong APACHE_REQUESTS = new AtomicLong();
+    private static final AtomicLong APACHE_MISSES = new AtomicLong();
+    private static final LatencyRecorder CONNECT_RECORDER = new LatencyRecorder();
+
+    // OkHttp only reuses a pooled connection for a client with the same SSL socket factory, and each client builds its
+    // own by default. Every client derived from the shared one gets this one.
+    private static final X509TrustManager TRUST_MANAGER = createTrustManager();
+    private static final SSLSocketFactory SSL_SOCKET_FACTORY = createSslSocketFactory(TRUST_MANAGER);
+
+    private static final OkHttpClient OK_HTTP_CLIENT = new OkHttpClient.Builder()
+            .connectionPool(new ConnectionPool(POOL_SIZE, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES))
+            .sslSocketFactory(SSL_SOCKET_FACTORY, TRUST_MANAGER)
+            .eventListenerFactory(call -> new PoolMetricsListener())
+            .addInterceptor(Tests.API_CALL_RECORDER)
+            .build();
+
+    private static final CloseableHttpClient APACHE_HTTP_CLIENT = createApacheHttpClient();
+
+    /** The shared OkHttp client. Close responses, or their connections can't go back to the pool. */
+    public static OkHttpClient getOkHttpClient() {
+        return OK_HTTP_CLIENT;
+    }
+
+    /** The shared Apache HttpClient. Disable redirects per request with RequestConfig if needed. */
+    public static CloseableHttpClient getApacheHttpClient() {
+        return APACHE_HTTP_CLIENT;
+    }
+
+    /**
+     * Returns the SDK's Retrofit rebuilt on the shared OkHttp client's connection pool. The SDK's own OkHttp client is
+     * copied with its interceptors, authenticator and timeouts, so errors still become SDK exceptions and sessions are
+     * still renewed; only the pool, SSL socket factory and event listener are replaced, and calls are recorded in
+     * {@link Tests#API_CALL_RECORDER}. The given interceptors (e.g. an {@link EtagCache}) run after the
+     * SDK's own. Callers keep the result for
+     * as long as the user it belongs to, since it holds that user's session (see {@link InstrumentedTestUser}).
+     */
+    public static Retrofit share(Retrofit retrofit, Interceptor... interceptors) {
+        if (!(retrofit.callFactory() instanceof OkHttpClient)) {
+            throw new IllegalStateException("SDK Retrofit doesn't use an OkHttpClient: " + retrofit.callFactory());
+        }
+        OkHttpClient sdkClient = (OkHttpClient) retrofit.callFactory();
+        OkHttpClient.Builder builder = sdkClient.newBuilder()
+                .connectionPool(OK_HTTP_CLIENT.connectionPool())
+                .sslSocketFactory(SSL_SOCKET_FACTORY, TRUST_MANAGER)
+                .eventListenerFactory(OK_HTTP_CLIENT.eventListenerFactory());
+        for (Interceptor interceptor : interceptors) {
+            builder.addInterceptor(interceptor);
+        }
+        OkHttpClient sharedClient = builder.addInterceptor(Tests.API_CALL_RECORDER).build();
+        return retrofit.newBuilder().client(sharedClient).build();
+    }
+
+    /**
+     * The Retrofit that created an SDK API client. ClientManager builds its OkHttp client internally, with no way to
+     * pass in a connection pool, so this is how its clients are moved onto the shared pool. The SDK keeps the Retrofit
+     * in a private field of the client's invocation handler; if a new SDK version doesn't, this throws rather than
+     * letting tests quietly fall back to their own pools.
+     */
+    public static Retrofit getRetrofit(Object client) {
+        // java.net.Proxy is imported for the event listener.
+        if (!java.lang.reflect.Proxy.isProxyClass(client.getClass())) {
+            throw new IllegalStateException("Not a Retrofit API client: " + client.getClass().getName());
+        }
+        InvocationHandler handler = java.lang.reflect.Proxy.getInvocationHandler(client);
+        for (Field field : handler.getClass().getDeclaredFields()) {
+            if (field.getType() == Retrofit.class) {
+                try {
+                    field.setAccessible(true);
+                    return (Retrofit) field.get(handler);
+                } catch (IllegalAccessException | RuntimeException e) {
+                    throw new IllegalStateException("Can't read the Retrofit behind " + client.getClass().getName(),
+                            e);
+                }
+            }
+        }
+        throw new IllegalStateException("No Retrofit field in " + handler.getClass().getName());
+    }
+
+    /** Requests that reused a pooled connection. */
+    public static long getPoolHits() {
+        return OK_HTTP_HITS.get() + APACHE_REQUESTS.get() - APACHE_MISSES.get();
+    }
+
+    /** Requests that had to open a new connection. */
+    public static long getPoolMisses() {
+        return OK_HTTP_MISSES.get() + APACHE_MISSES.get();
+    }
+
+    public static void logStats(Logger log) {
+        if (getPoolHits() + getPoolMisses() == 0) {
+            return;
+        }
+        log.info("Shared HTTP connection pools: {} hits, {} misses", getPoolHits(), getPoolMisses());
+        CONNECT_RECORDER.logSummary(log);
+    }
+
+    // A new listener is created for each call. A call that acquires a connection without connecting first got it from
+    // the pool.
+    private static class PoolMetricsListener extends EventListener {
+        private long connectStart;
+        private long secureConnectStart;
+        private boolean connected;
+
+        @Override
+        public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+            connectStart = System.nanoTime();
+            connected = true;
+        }
+
+        @Override
+        public void secureConnectStart(Call call) {
+            secureConnectStart = System.nanoTime();
+        }
+
+        @Override
+        public void secureConnectEnd(Call call, Handshake handshake) {
+            CONNECT_RECORDER.record("okhttp tlsHandshake", System.nanoTime() - secureConnectStart, true);
+        }
+
+        @Override
+        public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+            CONNECT_RECORDER.record("okhttp connect", System.nanoTime() - connectStart, true);
+        }
+
+        @Override
+        public void connectFailed(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol,
+                IOException ioe) {
+            CONNECT_RECORDER.record("okhttp connect", System.nanoTime() - connectStart, false);
+        }
+
+        @Override
+        public void connectionAcquired(Call call, Connection connection) {
+            if (connected) {
+                OK_HTTP_MISSES.incrementAndGet();
+            } else {
+                OK_HTTP_HITS.incrementAndGet();
+            }
+            // Follow-ups (e.g. redirects) on the same call acquire a connection again.
+            connected = false;
+        }
+    }
+
+    // Apache HttpClient has no per-call events, so count requests and new connections. The rest are pool hits.
+    private static CloseableHttpClient createApacheHttpClient() {
+        SSLConnectionSocketFactory sslSocketFactory = new SSLConnectionSocketFactory(SSLContexts.createDefault()) {
+            @Override
+            public Socket createLayeredSocket(Socket socket, String target, int port, HttpContext context)
+                    throws IOException {
+                long start = System.nanoTime();
+                boolean success = false;
+                try {
+                    Socket layered = super.createLayeredSocket(socket, target, port, context);
+                    success = true;
+                    return layered;
+                } finally {
+                    CONNECT_RECORDER.record("apache tlsHandshake", System.nanoTime() - start, success);
+                }
+            }
+        };
+        Registry<ConnectionSocketFactory> registry = RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                .register("https", sslSocketFactory)
+                .build();
+
+        HttpConnectionFactory<HttpRoute, ManagedHttpClientConnection> connectionFactory =
+                (HttpRoute route, ConnectionConfig config) -> {
+                    APACHE_MISSES.incrementAndGet();
+                    return ManagedHttpClientConnectionFactory.INSTANCE.create(route, config);
+                };
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(registry,
+                connectionFactory);
+        connectionManager.setMaxTotal(POOL_SIZE);
+        connectionManager.setDefaultMaxPerRoute(POOL_SIZE);
+        connectionManager.setValidateAfterInactivity(VALIDATE_AFTER_INACTIVITY_MILLIS);
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .evictExpiredConnections()
+                .evictIdleConnections(KEEP_ALIVE_MINUTES, TimeUnit.MINUTES)
+                .addInterceptorFirst((HttpRequestInterceptor) (request, context) -> APACHE_REQUESTS.incrementAndGet())
+                .build();
+    }
+
+    private static X509TrustManager createTrustManager() {
+        try {
+            TrustManagerFactory factory = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+            factory.init((KeyStore) null);
+            for (TrustManager trustManager : factory.getTrustManagers()) {
+                if (trustManager instanceof X509TrustManager) {
+                    return (X509TrustManager) trustManager;
+                }
+            }
+            throw new IllegalStateException("No X509TrustManager in the default trust managers");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static SSLSocketFactory createSslSocketFactory(X509TrustManager trustManager) {
+        try {
+            SSLContext context = SSLContext.getInstance("TLS");
+            context.init(null, new TrustManager[] { trustManager }, null);
+            return context.getSocketFactory();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
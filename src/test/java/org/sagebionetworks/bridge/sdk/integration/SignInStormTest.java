@@ -0,0 +1,197 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static org.sagebionetworks.bridge.util.IntegTestUtils.TEST_APP_ID;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.api.AuthenticationApi;
+import org.sagebionetworks.bridge.rest.api.ForSuperadminsApi;
+import org.sagebionetworks.bridge.rest.api.ParticipantsApi;
+import org.sagebionetworks.bridge.rest.exceptions.BridgeSDKException;
+import org.sagebionetworks.bridge.rest.model.App;
+import org.sagebionetworks.bridge.rest.model.SignIn;
+import org.sagebionetworks.bridge.rest.model.UserSessionInfo;
+import org.sagebionetworks.bridge.user.TestUser;
+import org.sagebionetworks.bridge.user.TestUserHelper;
+
+/**
+ * A morning app-open spike: many participants signing in at once. At each concurrency in -Dload.concurrencySteps,
+ * every participant runs -Dload.iterations operations, rotating through:
+ * <ul>
+ *     <li>signIn: a password sign-in (as in SignInTest);</li>
+ *     <li>reauthenticate: a sign-in with the participant's latest reauth token, which rotates it (as in
+ *     ReauthenticationTest);</li>
+ *     <li>sessionRefresh: the session is signed out behind the client's back, and the next call has to sign in again
+ *     transparently (as in SessionRefreshTest);</li>
+ *     <li>getUsersParticipantRecord: an ordinary authenticated call, as a baseline.</li>
+ * </ul>
+ * Participants start at different points in the rotation, so every kind of operation is in flight at once. Latency,
+ * errors by status code and total throughput are logged per step. Throughput has collapsed when it falls more than
+ * 10% below the best step so far, or when more than -Dload.maxErrorRate of operations fail; the storm stops there.
+ */
+@Category(LoadTest.class)
+public class SignInStormTest {
+    private static final Logger LOG = LoggerFactory.getLogger(SignInStormTest.class);
+
+    private static final int USERS = Integer.getInteger("load.users", 200);
+    private static final int ITERATIONS = Integer.getInteger("load.iterations", 8);
+    private static final List<Integer> CONCURRENCY_STEPS =
+            LoadTestRunner.intListProperty("load.concurrencySteps", "10,25,50,100,200");
+    private static final double MAX_ERROR_RATE = Double.parseDouble(System.getProperty("load.maxErrorRate", "0.05"));
+    private static final String[] OPERATIONS = { "signIn", "reauthenticate", "sessionRefresh",
+            "getUsersParticipantRecord" };
+
+    // A participant, with the reauth token from their most recent sign-in. Only one thread uses a caller at a time.
+    private static class Caller {
+        final TestUser user;
+        final int index;
+        String reauthToken;
+
+        Caller(TestUser user, int index) {
+            this.user = user;
+            this.index = index;
+            this.reauthToken = user.getSession().getReauthToken();
+        }
+    }
+
+    private static TestUser admin;
+    private static Boolean reauthenticationEnabled;
+    private static List<Caller> callers;
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        admin = TestUserHelper.getSignedInAdmin();
+        ForSuperadminsApi superadminApi = admin.getClient(ForSuperadminsApi.class);
+        App app = superadminApi.getApp(TEST_APP_ID).execute().body();
+        reauthenticationEnabled = app.isReauthenticationEnabled();
+        app.setReauthenticationEnabled(true);
+        superadminApi.updateApp(TEST_APP_ID, app).execute();
+
+        // Sign in after turning on reauthentication, so every session has a reauth token.
+        List<TestUser> users = new LoadTestRunner(20).createUsers(USERS,
+                () -> TestUserHelper.createAndSignInUser(SignInStormTest.class, true));
+        callers = new ArrayList<>();
+        for (TestUser user : users) {
+            callers.add(new Caller(user, callers.size()));
+        }
+    }
+
+    @AfterClass
+    public static void afterClass() throws Exception {
+        if (callers != null) {
+            new LoadTestRunner(20).forEach(callers, (caller, i) -> caller.user.signOutAndDeleteUser());
+        }
+        if (reauthenticationEnabled != null) {
+            ForSuperadminsApi superadminApi = admin.getClient(ForSuperadminsApi.class);
+            App app = superadminApi.getApp(TEST_APP_ID).execute().body();
+            app.setReauthenticationEnabled(reauthenticationEnabled);
+            superadminApi.updateApp(TEST_APP_ID, app).execute();
+        }
+    }
+
+    @Test
+    public void storm() throws Exception {
+        double bestThroughput = 0;
+        for (int concurrency : CONCURRENCY_STEPS) {
+            LoadTestRunner runner = new LoadTestRunner(concurrency);
+            Map<String, AtomicInteger> statusCounts = new ConcurrentHashMap<>();
+
+            long start = System.nanoTime();
+            runner.run(callers, ITERATIONS, (caller, iteration) -> {
+                String operation = OPERATIONS[(caller.index + iteration) % OPERATIONS.length];
+                try {
+                    runner.getRecorder().time(operation, () -> {
+                        runOperation(caller, operation);
+                        return null;
+                    });
+                } catch (BridgeSDKException e) {
+                    statusCounts.computeIfAbsent(operation + " " + e.getStatusCode(), k -> new AtomicInteger())
+                            .incrementAndGet();
+                    // Start the next operation from a good session. If that fails too, the storm still records
+                    // this operation's failure, with the sign-in failure attached.
+                    try {
+                        caller.user.signInAgain();
+                        caller.reauthToken = caller.user.getSession().getReauthToken();
+                    } catch (RuntimeException signInException) {
+                        e.addSuppressed(signInException);
+                    }
+                    throw e;
+                }
+            });
+            double seconds = (System.nanoTime() - start) / (double) TimeUnit.SECONDS.toNanos(1);
+
+            int total = 0;
+            int errors = 0;
+            for (LatencyRecorder.Stats stats : runner.getRecorder().getAllStats().values()) {
+                total += stats.getCount();
+                errors += stats.getErrors();
+            }
+            double throughput = (total - errors) / seconds;
+            double errorRate = (total == 0) ? 0 : errors / (double) total;
+
+            LOG.info("Concurrency {}: {} operations in {} s, {} successful/s, error rate {}%", concurrency, total,
+                    String.format("%.1f", seconds), String.format("%.1f", throughput),
+                    String.format("%.1f", errorRate * 100));
+            runner.getRecorder().logSummary(LOG);
+            SortedMap<String, AtomicInteger> sortedCounts = new TreeMap<>(statusCounts);
+            for (Map.Entry<String, AtomicInteger> entry : sortedCounts.entrySet()) {
+                LOG.info("  {} errors: {}", entry.getKey(), entry.getValue().get());
+            }
+
+            if (throughput < bestThroughput * 0.9 || errorRate > MAX_ERROR_RATE) {
+                LOG.info("Throughput collapsed at concurrency {} (best was {} successful/s)", concurrency,
+                        String.format("%.1f", bestThroughput));
+                break;
+            }
+            bestThroughput = Math.max(bestThroughput, throughput);
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private static void runOperation(Caller caller, String operation) throws Exception {
+        TestUser user = caller.user;
+        AuthenticationApi authApi = user.getClient(AuthenticationApi.class);
+        switch (operation) {
+            case "signIn":
+                UserSessionInfo session = authApi.signInV4(user.getSignIn()).execute().body();
+                caller.reauthToken = session.getReauthToken();
+                break;
+            case "reauthenticate":
+                SignIn signIn = new SignIn().appId(user.getAppId()).email(user.getEmail())
+                        .reauthToken(caller.reauthToken);
+                caller.reauthToken = authApi.reauthenticate(signIn).execute().body().getReauthToken();
+                break;
+            case "sessionRefresh":
+                // Sign out on the server only; the client still holds the old session token.
+                Request request = new Request.Builder()
+                        .addHeader("Bridge-Session", user.getSession().getSessionToken())
+                        .post(RequestBody.create(MediaType.parse("application/json"), "{}"))
+                        .url(user.getClientManager().getHostUrl() + "/v3/auth/signOut")
+                        .build();
+                SharedHttpClients.getOkHttpClient().newCall(request).execute().close();
+                user.getClient(ParticipantsApi.class).getUsersParticipantRecord(false).execute();
+                // Signing out destroyed the reauth tokens. The client signed in again with the password.
+                caller.reauthToken = user.getSession().getReauthToken();
+                break;
+            default:
+                user.getClient(ParticipantsApi.class).getUsersParticipantRecord(false).execute();
+        }
+    }
+}
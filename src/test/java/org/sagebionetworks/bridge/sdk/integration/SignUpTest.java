@@ -24,7 +24,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
-@Category(IntegrationSmokeTest.class)
+@Category({IntegrationSmokeTest.class, SerialTest.class})
 public class SignUpTest {
 
     @Test
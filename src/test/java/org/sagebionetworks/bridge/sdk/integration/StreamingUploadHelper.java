@@ -0,0 +1,71 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.apache.commons.codec.binary.Base64;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.fluent.Executor;
+import org.apache.http.client.fluent.Request;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.FileEntity;
+import org.apache.http.util.EntityUtils;
+
+import org.sagebionetworks.bridge.rest.model.UploadRequest;
+
+/**
+ * Upload helpers for files too large to hold in memory, such as wearable sensor archives. The MD5 is computed a
+ * region at a time over a memory-mapped file, and the PUT streams the file from disk, so heap use doesn't grow with
+ * the file size.
+ */
+public class StreamingUploadHelper {
+    // Size of each memory-mapped region. Mapped memory is outside the heap.
+    static final int REGION_SIZE = 64 * 1024 * 1024;
+
+    /** Base64-encoded MD5 of the file, computed without reading the file into the heap. */
+    public static String md5Base64(File file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long position = 0; position < size; position += REGION_SIZE) {
+                MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(REGION_SIZE, size - position));
+                digest.update(region);
+            }
+        }
+        return Base64.encodeBase64String(digest.digest());
+    }
+
+    /** Equivalent to RestUtils.makeUploadRequestForFile, for a file of the given content type. */
+    public static UploadRequest makeUploadRequest(File file, String contentType) throws IOException {
+        return new UploadRequest().name(file.getName()).contentLength(file.length()).contentMd5(md5Base64(file))
+                .contentType(contentType);
+    }
+
+    /**
+     * PUTs the file to the pre-signed S3 URL from an upload session, streaming it from disk. The content type must
+     * match the upload request. S3 pre-signed PUTs need a Content-Length, so this is one streamed request rather than
+     * a chunked one.
+     */
+    public static void uploadToS3(File file, String url, String contentType, String contentMd5) throws IOException {
+        Request request = Request.Put(url).setHeader("Content-MD5", contentMd5)
+                .body(new FileEntity(file, ContentType.create(contentType)));
+        HttpResponse response = Executor.newInstance(SharedHttpClients.getApacheHttpClient()).execute(request)
+                .returnResponse();
+        int statusCode = response.getStatusLine().getStatusCode();
+        if (statusCode != 200) {
+            throw new IOException("S3 upload failed with status " + statusCode + ": " +
+                    EntityUtils.toString(response.getEntity()));
+        }
+    }
+}
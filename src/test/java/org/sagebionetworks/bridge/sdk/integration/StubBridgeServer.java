@@ -0,0 +1,166 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.sagebionetworks.bridge.json.DefaultObjectMapper;
+
+/**
+ * An in-process stand-in for BridgeServer2 that serves a small subset of the REST API from in-memory state: sign in
+ * and sign out (v3 and v4), activity events for a signed-in session, and app configs. It exists to benchmark the
+ * SDK's serialization and connection handling without network or server time, and to run those benchmarks without
+ * a live environment. Enable it with stub.server.enabled in bridge-sdk-test.properties.
+ */
+public class StubBridgeServer implements AutoCloseable {
+    private static final String BRIDGE_SESSION = "Bridge-Session";
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    // Keyed by appId + ":" + email.
+    private final Map<String, String> passwords = new ConcurrentHashMap<>();
+    private final Map<String, String> userIds = new ConcurrentHashMap<>();
+    // Session token to user ID.
+    private final Map<String, String> sessions = new ConcurrentHashMap<>();
+    // App ID to app config JSON.
+    private final Map<String, JsonNode> appConfigs = new ConcurrentHashMap<>();
+
+    /** Starts the server on the given port, or on any free port if the port is 0. */
+    public StubBridgeServer(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public String getHostUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    /** Adds an account and returns its user ID. */
+    public String addAccount(String appId, String email, String password) {
+        String userId = UUID.randomUUID().toString();
+        passwords.put(appId + ":" + email, password);
+        userIds.put(appId + ":" + email, userId);
+        return userId;
+    }
+
+    public void putAppConfig(String appId, JsonNode appConfig) {
+        appConfigs.put(appId, appConfig);
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getPath();
+            if ("POST".equals(method) && (path.equals("/v3/auth/signIn") || path.equals("/v4/auth/signIn"))) {
+                signIn(exchange);
+            } else if ("POST".equals(method) && (path.equals("/v3/auth/signOut") || path.equals("/v4/auth/signOut"))) {
+                String token = exchange.getRequestHeaders().getFirst(BRIDGE_SESSION);
+                if (token != null) {
+                    sessions.remove(token);
+                }
+                respond(exchange, 200, message("Signed out."));
+            } else if ("GET".equals(method) && path.equals("/v1/activityevents")) {
+                if (!sessions.containsKey(String.valueOf(exchange.getRequestHeaders().getFirst(BRIDGE_SESSION)))) {
+                    respond(exchange, 401, error(401, "Not signed in.", null));
+                    return;
+                }
+                ObjectNode list = DefaultObjectMapper.INSTANCE.createObjectNode();
+                list.putArray("items");
+                list.put("type", "ResourceList");
+                respond(exchange, 200, list);
+            } else if ("GET".equals(method) && path.startsWith("/v1/apps/") && path.endsWith("/appconfig")) {
+                String appId = path.substring("/v1/apps/".length(), path.length() - "/appconfig".length());
+                JsonNode appConfig = appConfigs.get(appId);
+                if (appConfig == null) {
+                    respond(exchange, 404, error(404, "AppConfig not found.", "AppConfig"));
+                } else {
+                    respond(exchange, 200, appConfig);
+                }
+            } else if ("GET".equals(method) && path.equals("/")) {
+                respond(exchange, 200, message("Bridge stub server"));
+            } else {
+                respond(exchange, 404, error(404, "Not supported by stub server: " + method + " " + path, null));
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void signIn(HttpExchange exchange) throws IOException {
+        JsonNode signIn;
+        try (InputStream body = exchange.getRequestBody()) {
+            signIn = DefaultObjectMapper.INSTANCE.readTree(body);
+        }
+        String key = signIn.path("appId").asText() + ":" + signIn.path("email").asText();
+        String password = passwords.get(key);
+        if (password == null || !password.equals(signIn.path("password").asText())) {
+            respond(exchange, 404, error(404, "Account not found.", "Account"));
+            return;
+        }
+        String token = UUID.randomUUID().toString();
+        sessions.put(token, userIds.get(key));
+
+        ObjectNode session = DefaultObjectMapper.INSTANCE.createObjectNode();
+        session.put("id", userIds.get(key));
+        session.put("email", signIn.path("email").asText());
+        session.put("authenticated", true);
+        session.put("consented", true);
+        session.put("sessionToken", token);
+        session.put("reauthToken", UUID.randomUUID().toString());
+        session.putArray("roles");
+        session.putArray("dataGroups");
+        session.putObject("consentStatuses");
+        session.put("type", "UserSessionInfo");
+        respond(exchange, 200, session);
+    }
+
+    private static ObjectNode message(String message) {
+        ObjectNode node = DefaultObjectMapper.INSTANCE.createObjectNode();
+        node.put("message", message);
+        node.put("type", "Message");
+        return node;
+    }
+
+    private static ObjectNode error(int statusCode, String message, String entityClass) {
+        ObjectNode node = DefaultObjectMapper.INSTANCE.createObjectNode();
+        node.put("statusCode", statusCode);
+        node.put("message", message);
+        if (entityClass != null) {
+            node.put("entityClass", entityClass);
+        }
+        return node;
+    }
+
+    private static void respond(HttpExchange exchange, int statusCode, JsonNode body) throws IOException {
+        byte[] bytes = DefaultObjectMapper.INSTANCE.writeValueAsString(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        exchange.sendResponseHeaders(statusCode, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.sagebionetworks.bridge.rest.model.ActivityEventUpdateType.FUTURE_ONLY;
+import static org.sagebionetworks.bridge.rest.model.ActivityEventUpdateType.IMMUTABLE;
+import static org.sagebionetworks.bridge.rest.model.ActivityEventUpdateType.MUTABLE;
+import static org.sagebionetworks.bridge.rest.model.Role.RESEARCHER;
+import static org.sagebionetworks.bridge.sdk.integration.InitListener.EVENT_KEY1;
+import static org.sagebionetworks.bridge.sdk.integration.InitListener.EVENT_KEY2;
+import static org.sagebionetworks.bridge.sdk.integration.InitListener.EVENT_KEY3;
+import static org.sagebionetworks.bridge.sdk.integration.Tests.STUDY_ID_1;
+import static org.sagebionetworks.bridge.sdk.integration.Tests.getElement;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.api.ForConsentedUsersApi;
+import org.sagebionetworks.bridge.rest.api.ForResearchersApi;
+import org.sagebionetworks.bridge.rest.exceptions.BadRequestException;
+import org.sagebionetworks.bridge.rest.exceptions.ConcurrentModificationException;
+import org.sagebionetworks.bridge.rest.model.ActivityEventUpdateType;
+import org.sagebionetworks.bridge.rest.model.StudyActivityEvent;
+import org.sagebionetworks.bridge.rest.model.StudyActivityEventRequest;
+import org.sagebionetworks.bridge.user.TestUser;
+import org.sagebionetworks.bridge.user.TestUserHelper;
+
+/**
+ * Concurrent version of {@link StudyActivityEventTest}. For each of study1's custom events (event1 is mutable, event2
+ * immutable and event3 future only), -Dload.writers writers per participant race to update the same participant's
+ * event, -Dload.writesPerWriter times each. Half of the writers are the participant and half a researcher, as an app
+ * and a study coordinator updating a clinic visit would. Every write has a different timestamp, a minute apart around
+ * now, in random order, and asks for an error if the update type rejects it.
+ *
+ * <p>Each write is counted as accepted, rejected by the update type (400) or a conflict (409). Afterwards every
+ * participant's event must be consistent with the accepted writes: a mutable event holds one of them and has one
+ * history record per accepted write; an immutable event accepted exactly one write and holds it; a future only event
+ * holds the latest accepted write and has one history record per accepted write. A history shorter than the accepted
+ * writes is a lost update. Write latency and the conflict rate are logged for each update type. Set the number of
+ * participants with -Dload.users.</p>
+ */
+@Category(LoadTest.class)
+public class StudyActivityEventStormTest {
+    private static final Logger LOG = LoggerFactory.getLogger(StudyActivityEventStormTest.class);
+
+    private static final int USERS = Integer.getInteger("load.users", 10);
+    private static final int WRITERS = Integer.getInteger("load.writers", 10);
+    private static final int WRITES_PER_WRITER = Integer.getInteger("load.writesPerWriter", 5);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 50);
+
+    // One participant's event, and the outcome of the writes to it.
+    private static class Target {
+        final TestUser user;
+        final List<DateTime> timestamps;
+        final Queue<DateTime> accepted = new ConcurrentLinkedQueue<>();
+        final AtomicInteger rejected = new AtomicInteger();
+        final AtomicInteger conflicts = new AtomicInteger();
+
+        Target(TestUser user, List<DateTime> timestamps) {
+            this.user = user;
+            this.timestamps = timestamps;
+        }
+    }
+
+    // One of a target's writers. Even writers are the participant, odd writers the researcher.
+    private static class Writer {
+        final Target target;
+        final int index;
+
+        Writer(Target target, int index) {
+            this.target = target;
+            this.index = index;
+        }
+    }
+
+    private static TestUser researcher;
+    private static List<TestUser> users;
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        researcher = TestUserHelper.createAndSignInUser(StudyActivityEventStormTest.class, true, RESEARCHER);
+        users = new LoadTestRunner(CONCURRENCY).createUsers(USERS,
+                () -> TestUserHelper.createAndSignInUser(StudyActivityEventStormTest.class, true));
+    }
+
+    @AfterClass
+    public static void afterClass() throws Exception {
+        if (users != null) {
+            new LoadTestRunner(CONCURRENCY).forEach(users, (user, i) -> user.signOutAndDeleteUser());
+        }
+        if (researcher != null) {
+            researcher.signOutAndDeleteUser();
+        }
+    }
+
+    @Test
+    public void writeStorm() throws Exception {
+        LatencyRecorder recorder = new LatencyRecorder();
+        storm(EVENT_KEY1, MUTABLE, recorder);
+        storm(EVENT_KEY2, IMMUTABLE, recorder);
+        storm(EVENT_KEY3, FUTURE_ONLY, recorder);
+        recorder.logSummary(LOG);
+    }
+
+    private static void storm(String eventKey, ActivityEventUpdateType updateType, LatencyRecorder recorder)
+            throws Exception {
+        int writes = WRITERS * WRITES_PER_WRITER;
+        DateTime base = DateTime.now(DateTimeZone.UTC).withMillisOfSecond(0);
+        List<Target> targets = new ArrayList<>();
+        List<Writer> writers = new ArrayList<>();
+        for (TestUser user : users) {
+            // A minute apart, so no two writes have the same timestamp.
+            List<DateTime> timestamps = IntStream.range(0, writes).mapToObj(i -> base.plusMinutes(i - writes / 2))
+                    .collect(Collectors.toList());
+            Collections.shuffle(timestamps);
+            Target target = new Target(user, timestamps);
+            targets.add(target);
+            for (int i = 0; i < WRITERS; i++) {
+                writers.add(new Writer(target, i));
+            }
+        }
+
+        int failures = new LoadTestRunner(CONCURRENCY).run(writers, WRITES_PER_WRITER,
+                (writer, i) -> write(eventKey, updateType, writer, i, recorder));
+        assertEquals(updateType + " unexpected write failures", 0, failures);
+
+        int accepted = 0;
+        int rejected = 0;
+        int conflicts = 0;
+        for (Target target : targets) {
+            accepted += target.accepted.size();
+            rejected += target.rejected.get();
+            conflicts += target.conflicts.get();
+        }
+        int total = targets.size() * writes;
+        LOG.info("{}: {} writes, {} accepted, {} rejected by update type, {} conflicts ({}%)", updateType, total,
+                accepted, rejected, conflicts, String.format("%.2f", conflicts * 100.0 / total));
+
+        for (Target target : targets) {
+            verify(eventKey, updateType, target);
+        }
+    }
+
+    private static void write(String eventKey, ActivityEventUpdateType updateType, Writer writer, int iteration,
+            LatencyRecorder recorder) throws Exception {
+        Target target = writer.target;
+        DateTime timestamp = target.timestamps.get(writer.index * WRITES_PER_WRITER + iteration);
+        StudyActivityEventRequest request = new StudyActivityEventRequest().eventId(eventKey).timestamp(timestamp);
+        boolean byResearcher = writer.index % 2 == 1;
+        String name = updateType + (byResearcher ? " researcher" : " participant") + " write ";
+
+        long start = System.nanoTime();
+        try {
+            if (byResearcher) {
+                researcher.getClient(ForResearchersApi.class).createStudyParticipantStudyActivityEvent(STUDY_ID_1,
+                        target.user.getUserId(), request, true, null).execute();
+            } else {
+                target.user.getClient(ForConsentedUsersApi.class).createStudyActivityEvent(STUDY_ID_1, request, true,
+                        null).execute();
+            }
+            recorder.record(name + "accepted", System.nanoTime() - start, true);
+            target.accepted.add(timestamp);
+        } catch (BadRequestException e) {
+            if (!e.getMessage().contains("Study event(s) failed to publish: custom:" + eventKey)) {
+                throw e;
+            }
+            recorder.record(name + "rejected", System.nanoTime() - start, true);
+            target.rejected.incrementAndGet();
+        } catch (ConcurrentModificationException e) {
+            recorder.record(name + "conflict", System.nanoTime() - start, false);
+            target.conflicts.incrementAndGet();
+        }
+    }
+
+    private static void verify(String eventKey, ActivityEventUpdateType updateType, Target target) throws Exception {
+        ForConsentedUsersApi usersApi = target.user.getClient(ForConsentedUsersApi.class);
+        StudyActivityEvent event = getElement(usersApi.getStudyActivityEvents(STUDY_ID_1).execute().body().getItems(),
+                StudyActivityEvent::getEventId, "custom:" + eventKey).orElse(null);
+        int history = usersApi.getStudyActivityEventHistory(STUDY_ID_1, eventKey, null, null).execute().body()
+                .getTotal();
+        List<DateTime> accepted = new ArrayList<>(target.accepted);
+        String participant = updateType + " participant " + target.user.getUserId();
+
+        assertFalse(participant + " has no accepted write", accepted.isEmpty());
+        assertNotNull(participant + " has no event", event);
+        switch (updateType) {
+            case MUTABLE:
+                assertEquals(participant + " rejected writes", 0, target.rejected.get());
+                assertTrue(participant + " holds a timestamp that was not accepted",
+                        accepted.contains(event.getTimestamp()));
+                assertEquals(participant + " history records", accepted.size(), history);
+                break;
+            case IMMUTABLE:
+                assertEquals(participant + " accepted writes", 1, accepted.size());
+                assertEquals(participant + " timestamp", accepted.get(0), event.getTimestamp());
+                assertEquals(participant + " history records", 1, history);
+                break;
+            case FUTURE_ONLY:
+                assertEquals(participant + " timestamp", Collections.max(accepted), event.getTimestamp());
+                if (target.conflicts.get() == 0) {
+                    // Nothing is later than the latest write, so it can only be lost to a conflict.
+                    assertEquals(participant + " latest write", Collections.max(target.timestamps),
+                            event.getTimestamp());
+                }
+                assertEquals(participant + " history records", accepted.size(), history);
+                break;
+            default:
+                throw new IllegalArgumentException("Unexpected update type " + updateType);
+        }
+    }
+}
@@ -17,6 +17,7 @@ import org.joda.time.DateTime;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.junit.experimental.categories.Category;
 import org.sagebionetworks.bridge.rest.api.ForConsentedUsersApi;
 import org.sagebionetworks.bridge.rest.api.ForStudyDesignersApi;
 import org.sagebionetworks.bridge.rest.api.SchedulesV2Api;
@@ -45,6 +46,7 @@ import com.google.common.collect.ImmutableList;
 /**
  * Test the whole thing round trip.
  */
+@Category(SerialTest.class)
 public class StudyBurstTest {
     
     // These are established in the initializer for study 1.
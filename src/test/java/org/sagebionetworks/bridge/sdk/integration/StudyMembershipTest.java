@@ -14,6 +14,7 @@ import java.util.Set;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.junit.experimental.categories.Category;
 import org.sagebionetworks.bridge.rest.api.ForAdminsApi;
 import org.sagebionetworks.bridge.rest.api.ForConsentedUsersApi;
 import org.sagebionetworks.bridge.rest.api.ForSuperadminsApi;
@@ -36,6 +37,7 @@ import com.google.common.collect.ImmutableMap;
  * This test is redundant with other tests and could arguably be deleted. We test in many places
  * that external IDs establish an enrollment relationship.
  */
+@Category(SerialTest.class)
 public class StudyMembershipTest {
     private TestUser admin;
     private TestUser appAdmin;
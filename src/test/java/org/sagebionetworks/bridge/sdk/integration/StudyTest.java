@@ -41,6 +41,7 @@ import org.joda.time.LocalDate;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.junit.experimental.categories.Category;
 
 import org.sagebionetworks.bridge.rest.RestUtils;
 import org.sagebionetworks.bridge.rest.api.ForAdminsApi;
@@ -68,7 +69,6 @@ import org.sagebionetworks.bridge.user.TestUser;
 import org.sagebionetworks.bridge.user.TestUserHelper;
 import org.sagebionetworks.bridge.util.IntegTestUtils;
 
-import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
 import okhttp3.ResponseBody;
@@ -78,6 +78,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 
 @SuppressWarnings("ConstantConditions")
+@Category(SerialTest.class)
 public class StudyTest {
     
     private static final ImmutableList<SignInType> SIGN_IN_TYPES = ImmutableList.of(EMAIL_MESSAGE, PHONE_PASSWORD);
@@ -362,9 +363,8 @@ public class StudyTest {
     public void testPublicStudies() throws IOException {
         String url = admin.getClientManager().getHostUrl() + "/v1/apps/api/studies/study1";
         
-        OkHttpClient client = new OkHttpClient();
         Request request = new Request.Builder().url(url).build();
-        Response response = client.newCall(request).execute();
+        Response response = SharedHttpClients.getOkHttpClient().newCall(request).execute();
         
         assertEquals(200, response.code());
         assertEquals("application/json;charset=UTF-8", response.header("Content-Type"));
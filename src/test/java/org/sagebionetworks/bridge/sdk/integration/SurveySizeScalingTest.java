@@ -0,0 +1,109 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.RestUtils;
+import org.sagebionetworks.bridge.rest.api.SurveysApi;
+import org.sagebionetworks.bridge.rest.model.GuidCreatedOnVersionHolder;
+import org.sagebionetworks.bridge.rest.model.Role;
+import org.sagebionetworks.bridge.rest.model.Survey;
+import org.sagebionetworks.bridge.user.TestUser;
+import org.sagebionetworks.bridge.user.TestUserHelper;
+
+/**
+ * Times the survey lifecycle as surveys grow far past the fixture in {@link TestSurvey}. For each element count in
+ * -Dload.surveyElements, surveys are generated with {@link TestSurvey#getLargeSurvey}, then created, read, versioned,
+ * published and read again. The JSON size of each survey is logged with the latencies. A failed or timed-out call is
+ * recorded as an error and the run goes on to the next survey. Shape the surveys with -Dload.rulesPerElement and
+ * -Dload.infoScreenLength, and set the surveys per size with -Dload.iterations.
+ */
+@Category(LoadTest.class)
+public class SurveySizeScalingTest {
+    private static final Logger LOG = LoggerFactory.getLogger(SurveySizeScalingTest.class);
+
+    private static final List<Integer> SIZES =
+            LoadTestRunner.intListProperty("load.surveyElements", "15,100,500,1000,2500");
+    private static final int RULES_PER_ELEMENT = Integer.getInteger("load.rulesPerElement", 5);
+    private static final int INFO_SCREEN_LENGTH = Integer.getInteger("load.infoScreenLength", 2000);
+    private static final int ITERATIONS = Integer.getInteger("load.iterations", 3);
+
+    private static TestUser developer;
+    private List<GuidCreatedOnVersionHolder> surveysToDelete = new ArrayList<>();
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        developer = TestUserHelper.createAndSignInUser(SurveySizeScalingTest.class, false, Role.DEVELOPER);
+    }
+
+    @AfterClass
+    public static void afterClass() throws Exception {
+        if (developer != null) {
+            developer.signOutAndDeleteUser();
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    @After
+    public void after() throws Exception {
+        SurveysApi surveysApi = TestUserHelper.getSignedInAdmin().getClient(SurveysApi.class);
+        for (GuidCreatedOnVersionHolder keys : surveysToDelete) {
+            try {
+                surveysApi.deleteSurvey(keys.getGuid(), keys.getCreatedOn(), true).execute();
+            } catch (RuntimeException e) {
+                LOG.error("Error deleting survey=" + keys + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
+    @Test
+    public void surveyLifecycleBySize() throws Exception {
+        LatencyRecorder recorder = new LatencyRecorder();
+        for (int size : SIZES) {
+            String prefix = String.format("%05d elements ", size);
+            for (int i = 0; i < ITERATIONS; i++) {
+                Survey survey = TestSurvey.getLargeSurvey(SurveySizeScalingTest.class, size, RULES_PER_ELEMENT,
+                        INFO_SCREEN_LENGTH);
+                if (i == 0) {
+                    LOG.info("{}: {} KB of JSON", prefix, RestUtils.GSON.toJson(survey).length() / 1024);
+                }
+                try {
+                    runLifecycle(survey, prefix, recorder);
+                } catch (Exception e) {
+                    LOG.warn(prefix + "survey failed: " + e.getMessage(), e);
+                }
+            }
+        }
+        recorder.logSummary(LOG);
+    }
+
+    @SuppressWarnings("deprecation")
+    private void runLifecycle(Survey survey, String prefix, LatencyRecorder recorder) throws Exception {
+        SurveysApi surveysApi = developer.getClient(SurveysApi.class);
+
+        GuidCreatedOnVersionHolder keys = recorder.time(prefix + "createSurvey",
+                () -> surveysApi.createSurvey(survey).execute().body());
+        surveysToDelete.add(keys);
+        Survey created = recorder.time(prefix + "getSurvey",
+                () -> surveysApi.getSurvey(keys.getGuid(), keys.getCreatedOn()).execute().body());
+        assertEquals(survey.getElements().size(), created.getElements().size());
+
+        GuidCreatedOnVersionHolder version = recorder.time(prefix + "versionSurvey",
+                () -> surveysApi.versionSurvey(keys.getGuid(), keys.getCreatedOn()).execute().body());
+        surveysToDelete.add(version);
+        recorder.time(prefix + "publishSurvey",
+                () -> surveysApi.publishSurvey(version.getGuid(), version.getCreatedOn(), false).execute());
+        recorder.time(prefix + "getSurvey published",
+                () -> surveysApi.getSurvey(version.getGuid(), version.getCreatedOn()).execute());
+    }
+}
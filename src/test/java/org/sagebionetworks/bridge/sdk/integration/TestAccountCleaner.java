@@ -0,0 +1,120 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.util.concurrent.RateLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.api.ForAdminsApi;
+import org.sagebionetworks.bridge.rest.api.ParticipantsApi;
+import org.sagebionetworks.bridge.rest.exceptions.EntityNotFoundException;
+import org.sagebionetworks.bridge.rest.model.AccountSummary;
+import org.sagebionetworks.bridge.rest.model.AccountSummarySearch;
+import org.sagebionetworks.bridge.user.TestUser;
+
+/**
+ * Deletes the accounts left behind by earlier test runs. Pages through the accounts matching an email filter and
+ * deletes each page concurrently, with a cap on the number of deletes in flight and on deletes per second so the
+ * server isn't overloaded. Accounts that can't be deleted are skipped on later pages and reported at the end. Tune
+ * with -Dcleanup.concurrency and -Dcleanup.rate (deletes per second).
+ */
+public class TestAccountCleaner {
+    private static final Logger LOG = LoggerFactory.getLogger(TestAccountCleaner.class);
+
+    private static final int CONCURRENCY = Integer.getInteger("cleanup.concurrency", 8);
+    private static final double DELETES_PER_SECOND = Double.parseDouble(System.getProperty("cleanup.rate", "20"));
+    private static final int PAGE_SIZE = 100;
+
+    private final ParticipantsApi participantsApi;
+    private final ForAdminsApi adminsApi;
+
+    public TestAccountCleaner(TestUser admin) {
+        this.participantsApi = admin.getClient(ParticipantsApi.class);
+        this.adminsApi = admin.getClient(ForAdminsApi.class);
+    }
+
+    /** Deletes all accounts whose email contains the filter. Returns the number of accounts deleted. */
+    public int deleteAccounts(String emailFilter) throws Exception {
+        RateLimiter rateLimiter = RateLimiter.create(DELETES_PER_SECOND);
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENCY);
+        Set<String> failedIds = new HashSet<>();
+        int deleted = 0;
+        int offset = 0;
+        long start = System.nanoTime();
+        try {
+            while (true) {
+                // Deleted accounts drop out of the search, so we stay on the first page, except to skip past a page
+                // made up entirely of accounts we couldn't delete.
+                AccountSummarySearch search = new AccountSummarySearch().emailFilter(emailFilter).offsetBy(offset)
+                        .pageSize(PAGE_SIZE);
+                List<AccountSummary> page = participantsApi.searchAccountSummaries(search).execute().body()
+                        .getItems();
+                if (page.isEmpty()) {
+                    break;
+                }
+                List<Future<String>> futures = new ArrayList<>();
+                for (AccountSummary summary : page) {
+                    if (!failedIds.contains(summary.getId())) {
+                        futures.add(executor.submit(() -> deleteAccount(rateLimiter, summary.getId())));
+                    }
+                }
+                if (futures.isEmpty()) {
+                    offset += page.size();
+                    continue;
+                }
+                for (Future<String> future : futures) {
+                    try {
+                        future.get();
+                        deleted++;
+                    } catch (ExecutionException e) {
+                        AccountDeletionException ade = (AccountDeletionException) e.getCause();
+                        LOG.warn("Could not delete test account " + ade.userId, ade.getCause());
+                        failedIds.add(ade.userId);
+                    }
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        double seconds = (System.nanoTime() - start) / (double) TimeUnit.SECONDS.toNanos(1);
+        LOG.info("Deleted {} test accounts in {} seconds ({} accounts/sec)", deleted, String.format("%.1f", seconds),
+                String.format("%.1f", (seconds > 0) ? deleted / seconds : 0));
+        if (!failedIds.isEmpty()) {
+            LOG.error("{} test accounts could not be deleted and were left behind: {}", failedIds.size(), failedIds);
+        }
+        return deleted;
+    }
+
+    private String deleteAccount(RateLimiter rateLimiter, String userId) throws AccountDeletionException {
+        rateLimiter.acquire();
+        try {
+            adminsApi.deleteUser(userId).execute();
+        } catch (EntityNotFoundException e) {
+            // Already deleted, e.g. by a test's own cleanup running at the same time.
+        } catch (Exception e) {
+            throw new AccountDeletionException(userId, e);
+        }
+        return userId;
+    }
+
+    private static class AccountDeletionException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        private final String userId;
+
+        AccountDeletionException(String userId, Throwable cause) {
+            super(cause);
+            this.userId = userId;
+        }
+    }
+}
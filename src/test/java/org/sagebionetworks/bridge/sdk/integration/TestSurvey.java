@@ -24,6 +24,7 @@ import org.sagebionetworks.bridge.rest.model.PostalCodeConstraints;
 import org.sagebionetworks.bridge.rest.model.StringConstraints;
 import org.sagebionetworks.bridge.rest.model.Survey;
 import org.sagebionetworks.bridge.rest.model.SurveyElement;
+import org.sagebionetworks.bridge.rest.model.SurveyInfoScreen;
 import org.sagebionetworks.bridge.rest.model.SurveyQuestion;
 import org.sagebionetworks.bridge.rest.model.SurveyQuestionOption;
 import org.sagebionetworks.bridge.rest.model.SurveyRule;
@@ -34,6 +35,7 @@ import org.sagebionetworks.bridge.rest.model.WeightConstraints;
 import org.sagebionetworks.bridge.rest.model.YearConstraints;
 import org.sagebionetworks.bridge.rest.model.YearMonthConstraints;
 
+import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
 
 public class TestSurvey {
@@ -332,4 +334,59 @@ public class TestSurvey {
         return survey;
     }
 
+    /**
+     * A survey of any size, for load tests. The questions cycle through the ones in {@link #getSurvey(Class)}, with an
+     * index appended to their identifiers. Every tenth element is an info screen whose prompt detail is
+     * infoScreenLength characters long. Each question has rulesPerElement before rules and as many after rules, each
+     * skipping to one of the elements that follow it (or ending the survey near the end), so the rules span the
+     * survey.
+     */
+    public static Survey getLargeSurvey(Class<?> cls, int elementCount, int rulesPerElement, int infoScreenLength)
+            throws Exception {
+        Survey survey = getSurvey(cls);
+        List<SurveyElement> templates = Lists.newArrayList(survey.getElements());
+        List<SurveyElement> elements = Lists.newArrayList();
+        for (int i = 0; i < elementCount; i++) {
+            SurveyElement element;
+            if (i % 10 == 9) {
+                SurveyInfoScreen screen = new SurveyInfoScreen();
+                screen.setTitle("Information " + i);
+                screen.setPrompt("Please read the following before you continue.");
+                screen.setPromptDetail(Strings.repeat("Lorem ipsum dolor sit amet. ", infoScreenLength / 28 + 1)
+                        .substring(0, infoScreenLength));
+                screen.setImage(image("http://info.svg", 600, 300));
+                Tests.setVariableValueInObject(screen, "type", "SurveyInfoScreen");
+                element = screen;
+            } else {
+                if (templates.isEmpty()) {
+                    templates = Lists.newArrayList(getSurvey(cls).getElements());
+                }
+                element = templates.remove(0);
+                List<SurveyRule> beforeRules = Lists.newArrayList();
+                List<SurveyRule> afterRules = Lists.newArrayList();
+                for (int j = 1; j <= rulesPerElement; j++) {
+                    beforeRules.add(skipRule(i + j, elementCount));
+                    afterRules.add(skipRule(i + rulesPerElement + j, elementCount));
+                }
+                element.setBeforeRules(beforeRules);
+                element.setAfterRules(afterRules);
+            }
+            element.setIdentifier(elementId(i));
+            elements.add(element);
+        }
+        survey.setElements(elements);
+        return survey;
+    }
+
+    private static String elementId(int index) {
+        return "element_" + index;
+    }
+
+    // If the participant declines to answer, skip to the target element, or end the survey if there is no such element.
+    private static SurveyRule skipRule(int target, int elementCount) {
+        if (target >= elementCount) {
+            return new SurveyRule().operator(Operator.DE).endSurvey(true);
+        }
+        return rule(Operator.DE, null, elementId(target));
+    }
 }
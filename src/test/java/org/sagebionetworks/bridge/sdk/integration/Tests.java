@@ -10,6 +10,7 @@ import static org.sagebionetworks.bridge.util.IntegTestUtils.SHARED_APP_ID;
 import static org.sagebionetworks.bridge.util.IntegTestUtils.TEST_APP_2_ID;
 import static org.sagebionetworks.bridge.util.IntegTestUtils.TEST_APP_ID;
 
+import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.Field;
 import java.nio.file.Files;
@@ -21,12 +22,15 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 
 import com.google.common.base.Function;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
+import okhttp3.Interceptor;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.joda.time.DateTime;
 import org.sagebionetworks.client.SynapseClient;
@@ -79,8 +83,22 @@ public class Tests {
     public static final String NATIONAL_PHONE_FORMAT = "(971) 248-6796";
     public static final String SYNAPSE_USER_ID = "88888";
 
-    private static final int RETRY_MAX_TRIES = 5;
-    private static final long RETRY_SLEEP_MILLIS = 1000;
+    private static final long RETRY_INITIAL_DELAY_MILLIS = 250;
+    private static final long RETRY_MAX_DELAY_MILLIS = 4000;
+    private static final long RETRY_DEADLINE_MILLIS = 15000;
+
+    /** Time taken for retryHelper calls to succeed (or give up), keyed by calling test. Logged after the run. */
+    public static final LatencyRecorder RETRY_LATENCY_RECORDER = new LatencyRecorder();
+
+    /**
+     * Calls made over the shared OkHttp client, including SDK calls of instrumented users (see
+     * {@link #instrument(TestUser)}). Written to the file named by -Dapi.report.file (default
+     * target/api-call-report.json) after the run.
+     */
+    public static final ApiCallRecorder API_CALL_RECORDER = new ApiCallRecorder();
+
+    // Set by surefire in the parallel-tests profile. Null when tests run in a single JVM.
+    private static final String FORK_NUMBER = System.getProperty("fork.number");
 
     private static final String CONFIG_FILE = "bridge-sdk-test.properties";
     private static final String DEFAULT_CONFIG_FILE = CONFIG_FILE;
@@ -102,13 +120,25 @@ public class Tests {
         return new ApiClientProvider(baseUrl, clientInfo, lang, appId);
     }
 
+    /**
+     * A random identifier for test objects. When running in parallel, the identifier includes the fork number, so
+     * objects created by different forks never collide and can be traced back to their fork.
+     */
     public static String randomIdentifier(Class<?> cls) {
-        return ("sdk-" + cls.getSimpleName().toLowerCase() + "-" + RandomStringUtils.randomAlphabetic(5)).toLowerCase();
+        String fork = (FORK_NUMBER == null) ? "" : ("f" + FORK_NUMBER + "-");
+        return ("sdk-" + cls.getSimpleName().toLowerCase() + "-" + fork + RandomStringUtils.randomAlphabetic(5))
+                .toLowerCase();
+    }
+
+    /** True if this JVM is one of several running test classes in parallel. */
+    public static boolean isParallelFork() {
+        return FORK_NUMBER != null;
     }
 
     /**
      * Helper function that wraps around retries. Used for tests that can fail sporadically (e.g. anything that uses a
-     * DynamoDB secondary index.
+     * DynamoDB secondary index. The first try is made immediately, then retries back off exponentially (with jitter)
+     * until the default deadline of 15 seconds.
      *
      * @param testCall
      *         the test code that might sporadically fail (e.g. a server call using DynamoDB secondary index)
@@ -116,16 +146,24 @@ public class Tests {
      *         a callable that returns true if the test code succeeded, false if we need to retry
      */
     public static <T> T retryHelper(Callable<T> testCall, Predicate<T> validationCall) {
-        for (int i = 0; i < RETRY_MAX_TRIES; i++) {
-            try {
-                Thread.sleep(RETRY_SLEEP_MILLIS);
-            } catch (InterruptedException ex) {
-                // Ignore exception.
-            }
+        return retryHelper(testCall, validationCall, RETRY_DEADLINE_MILLIS);
+    }
 
+    /**
+     * Same as {@link #retryHelper(Callable, Predicate)}, but gives up after deadlineMillis. How long each caller took
+     * to succeed is recorded in {@link #RETRY_LATENCY_RECORDER}, which measures how long the server takes to become
+     * consistent.
+     */
+    public static <T> T retryHelper(Callable<T> testCall, Predicate<T> validationCall, long deadlineMillis) {
+        String caller = getRetryCaller();
+        long startNanos = System.nanoTime();
+        long deadlineNanos = startNanos + TimeUnit.MILLISECONDS.toNanos(deadlineMillis);
+        long delayMillis = RETRY_INITIAL_DELAY_MILLIS;
+        for (int i = 0; ; i++) {
             try {
                 T result = testCall.call();
                 if (validationCall.test(result)) {
+                    RETRY_LATENCY_RECORDER.record(caller, System.nanoTime() - startNanos, true);
                     return result;
                 } else {
                     LOG.warn("Validation failed in retryHelper (try #" + i + ")");
@@ -133,9 +171,36 @@ public class Tests {
             } catch (Exception ex) {
                 LOG.warn("Exception thrown in retryHelper (try #" + i + "): " + ex.getMessage(), ex);
             }
+
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+            if (remainingMillis <= 0) {
+                break;
+            }
+            // Sleep between half and all of the current delay, so parallel callers don't retry in lockstep.
+            long sleepMillis = delayMillis / 2 + ThreadLocalRandom.current().nextLong(delayMillis / 2 + 1);
+            try {
+                Thread.sleep(Math.min(sleepMillis, remainingMillis));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("retryHelper interrupted", ex);
+            }
+            delayMillis = Math.min(delayMillis * 2, RETRY_MAX_DELAY_MILLIS);
         }
 
-        throw new RuntimeException("retryHelper failed");
+        RETRY_LATENCY_RECORDER.record(caller, System.nanoTime() - startNanos, false);
+        throw new RuntimeException("retryHelper failed after " + deadlineMillis + " ms");
+    }
+
+    // The test method that called retryHelper, as SimpleClassName.methodName (lambdas included).
+    private static String getRetryCaller() {
+        String packagePrefix = Tests.class.getPackage().getName() + ".";
+        for (StackTraceElement element : Thread.currentThread().getStackTrace()) {
+            String className = element.getClassName();
+            if (className.startsWith(packagePrefix) && !className.equals(Tests.class.getName())) {
+                return className.substring(packagePrefix.length()) + "." + element.getMethodName();
+            }
+        }
+        return "unknown";
     }
 
     public static List<Activity> labelActivities(List<Activity> activities, String randomLabel) {
@@ -444,6 +509,34 @@ public class Tests {
         if (user.getSession() != null) {
             builder.withAcceptLanguage(user.getSession().getLanguages()).build();    
         }
-        return new TestUser(user.getSignIn(), builder.build(), user.getUserId());
+        return instrument(new TestUser(user.getSignIn(), builder.build(), user.getUserId()));
+    }
+
+    /**
+     * Returns the same user, with its calls sent over the shared connection pool and latency, status code and payload
+     * size recorded for every call it makes.
+     */
+    public static TestUser instrument(TestUser user) {
+        if (user instanceof InstrumentedTestUser) {
+            return user;
+        }
+        return new InstrumentedTestUser(user);
+    }
+
+    /**
+     * Like {@link #instrument(TestUser)}, but the user's clients also send their calls through the given interceptors
+     * (e.g. an {@link EtagCache}), inside the SDK's own.
+     */
+    public static TestUser instrument(TestUser user, Interceptor... interceptors) {
+        return new InstrumentedTestUser(user, interceptors);
+    }
+
+    /** The API call report for this JVM. Each fork in the parallel-tests profile writes its own report. */
+    public static File getApiCallReportFile() {
+        String fileName = System.getProperty("api.report.file", "target/api-call-report.json");
+        if (FORK_NUMBER != null) {
+            fileName = fileName.replaceFirst("(\\.json)?$", "-f" + FORK_NUMBER + "$1");
+        }
+        return new File(fileName);
     }
 }
@@ -0,0 +1,140 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static org.junit.Assert.assertEquals;
+import static org.sagebionetworks.bridge.util.IntegTestUtils.TEST_APP_ID;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.joda.time.DateTime;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.api.ForWorkersApi;
+import org.sagebionetworks.bridge.rest.api.StudiesApi;
+import org.sagebionetworks.bridge.rest.model.Study;
+import org.sagebionetworks.bridge.rest.model.UploadTableRow;
+import org.sagebionetworks.bridge.rest.model.UploadTableRowQuery;
+import org.sagebionetworks.bridge.user.TestUser;
+import org.sagebionetworks.bridge.user.TestUserHelper;
+
+/**
+ * Bulk version of {@link UploadTableTest}. Concurrent workers fill a new study's upload table with
+ * saveUploadTableRowForWorker, stopping at each row count in -Dload.rowCheckpoints. At each checkpoint the insert
+ * throughput is logged, and queryUploadTableRowsForWorker is timed for every page size in -Dload.pageSizes at start
+ * offsets from the beginning to the end of the table. If the cost of a page grows with its offset, deep pages show it.
+ * Finally the whole table is read page by page, as a worker building an upload table would. Set the number of
+ * concurrent workers with -Dload.workers and the queries per offset with -Dload.iterations.
+ */
+@Category(LoadTest.class)
+public class UploadTableLoadTest {
+    private static final Logger LOG = LoggerFactory.getLogger(UploadTableLoadTest.class);
+
+    private static final List<Integer> ROW_CHECKPOINTS =
+            LoadTestRunner.intListProperty("load.rowCheckpoints", "1000,5000,20000");
+    private static final List<Integer> PAGE_SIZES = LoadTestRunner.intListProperty("load.pageSizes", "5,20,100");
+    private static final int WORKERS = Integer.getInteger("load.workers", 20);
+    private static final int ITERATIONS = Integer.getInteger("load.iterations", 3);
+    private static final int SCAN_PAGE_SIZE = 100;
+    private static final int ASSESSMENTS = 10;
+    private static final int HEALTH_CODES = 500;
+    private static final DateTime CREATED_ON = DateTime.parse("2018-01-01T00:00:00Z");
+
+    private static TestUser admin;
+    private static ForWorkersApi workersApi;
+    private static String studyId;
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        admin = TestUserHelper.getSignedInAdmin();
+        workersApi = admin.getClient(ForWorkersApi.class);
+        studyId = Tests.randomIdentifier(UploadTableLoadTest.class);
+        admin.getClient(StudiesApi.class).createStudy(new Study().identifier(studyId).name(studyId)).execute();
+    }
+
+    @AfterClass
+    public static void afterClass() throws Exception {
+        if (studyId != null) {
+            admin.getClient(StudiesApi.class).deleteStudy(studyId, true).execute();
+        }
+    }
+
+    @Test
+    public void bulkWriteAndQuery() throws Exception {
+        LatencyRecorder recorder = new LatencyRecorder();
+        int rowCount = 0;
+        for (int checkpoint : ROW_CHECKPOINTS) {
+            insertRows(rowCount, checkpoint, recorder);
+            rowCount = checkpoint;
+
+            String prefix = String.format("%07d rows ", rowCount);
+            for (int pageSize : PAGE_SIZES) {
+                int lastOffset = Math.max(0, rowCount - pageSize);
+                for (int percent : new int[] { 0, 25, 50, 75, 100 }) {
+                    int offset = lastOffset * percent / 100;
+                    UploadTableRowQuery query = new UploadTableRowQuery().start(offset).pageSize(pageSize);
+                    String name = String.format("%squery pageSize=%03d offset at %3d%%", prefix, pageSize, percent);
+                    for (int i = 0; i < ITERATIONS; i++) {
+                        int size = recorder.time(name, () -> workersApi.queryUploadTableRowsForWorker(TEST_APP_ID,
+                                studyId, query).execute().body().getItems().size());
+                        assertEquals(Math.min(pageSize, rowCount - offset), size);
+                    }
+                }
+            }
+        }
+
+        // Read the whole table, as the upload table worker does.
+        long start = System.nanoTime();
+        int rowsRead = 0;
+        List<UploadTableRow> page;
+        do {
+            UploadTableRowQuery query = new UploadTableRowQuery().start(rowsRead).pageSize(SCAN_PAGE_SIZE);
+            page = recorder.time(String.format("%07d rows full scan pageSize=%03d", rowCount, SCAN_PAGE_SIZE),
+                    () -> workersApi.queryUploadTableRowsForWorker(TEST_APP_ID, studyId, query).execute().body()
+                            .getItems());
+            rowsRead += page.size();
+        } while (page.size() == SCAN_PAGE_SIZE);
+        double seconds = (System.nanoTime() - start) / (double) TimeUnit.SECONDS.toNanos(1);
+        LOG.info("Full scan: {} rows in {} s ({} rows/s)", rowsRead, String.format("%.1f", seconds),
+                String.format("%.0f", rowsRead / seconds));
+        assertEquals(rowCount, rowsRead);
+
+        recorder.logSummary(LOG);
+    }
+
+    // Workers split the rows from (inclusive) to (exclusive) between them.
+    private static void insertRows(int from, int to, LatencyRecorder recorder) throws Exception {
+        List<Integer> workers = IntStream.range(0, WORKERS).boxed().collect(Collectors.toList());
+        String name = String.format("%07d rows saveUploadTableRowForWorker", to);
+        long start = System.nanoTime();
+        int failures = new LoadTestRunner(WORKERS).forEach(workers, (worker, i) -> {
+            for (int row = from + worker; row < to; row += WORKERS) {
+                UploadTableRow uploadTableRow = makeRow(row);
+                recorder.time(name, () -> workersApi.saveUploadTableRowForWorker(TEST_APP_ID, studyId,
+                        uploadTableRow).execute());
+            }
+        });
+        double seconds = (System.nanoTime() - start) / (double) TimeUnit.SECONDS.toNanos(1);
+        LOG.info("Inserted rows {} to {} with {} workers in {} s ({} rows/s)", from, to - 1, WORKERS,
+                String.format("%.1f", seconds), String.format("%.0f", (to - from) / seconds));
+        assertEquals(0, failures);
+    }
+
+    private static UploadTableRow makeRow(int index) {
+        return new UploadTableRow().recordId("record-" + index)
+                .assessmentGuid("dummy-assessment-" + (index % ASSESSMENTS))
+                .createdOn(CREATED_ON.plusSeconds(index))
+                .testData(false)
+                .healthCode("dummy-health-code-" + (index % HEALTH_CODES))
+                .participantVersion(1)
+                .putMetadataItem("foo", "bar")
+                .putDataItem("answer", String.valueOf(index))
+                .putDataItem("score", String.valueOf(index % 100));
+    }
+}
@@ -89,18 +89,15 @@ import org.sagebionetworks.bridge.util.IntegTestUtils;
 
 import com.google.common.collect.Lists;
 
-@Category(IntegrationSmokeTest.class)
+@Category({IntegrationSmokeTest.class, SerialTest.class})
 public class UploadTest {
     
     private static final String EXTERNAL_ID = "upload-test-extid";
     
     // On a cold server, validation could take up to 8 seconds (most of this is downloading and caching the encryption
-    // certs for the first time). Subsequent validation attempts take about 2 seconds. 5 second delay is a good
-    // compromise between fast tests and not having to retry a bunch of times.
-    private static final int UPLOAD_STATUS_DELAY_MILLISECONDS = 5000;
-
-    // Retry up to 6 times, so we don't spend more than 30 seconds per test.
-    private static final int UPLOAD_STATUS_DELAY_RETRIES = 6;
+    // certs for the first time). Subsequent validation attempts take about 2 seconds. Poll with backoff, but don't
+    // spend more than 30 seconds per test.
+    private static final long UPLOAD_STATUS_DEADLINE_MILLISECONDS = 30000;
 
     // invalid MD5 hashes for validation testing
     private static final String[] INVALID_BASE64_MD5_HASHES = {
@@ -145,8 +142,12 @@ public class UploadTest {
         user = TestUserHelper.createAndSignInUser(UploadTest.class, true, signUp);
 
         // ensure schemas exist, so we have something to upload against
-        UploadSchemasApi uploadSchemasApi = developer.getClient(UploadSchemasApi.class);
+        ensureSchemas(developer.getClient(UploadSchemasApi.class));
+    }
 
+    /** Creates the schemas for the legacy upload-test fixtures if they don't already exist. */
+    @SuppressWarnings("deprecation")
+    static void ensureSchemas(UploadSchemasApi uploadSchemasApi) throws IOException {
         UploadSchema legacySurveySchema = null;
         try {
             legacySurveySchema = uploadSchemasApi.getMostRecentUploadSchema("legacy-survey").execute().body();
@@ -338,18 +339,13 @@ public class UploadTest {
         
         String uploadId = session.getId();
         
-        // get validation status
-        UploadValidationStatus status = null;
-        for (int i = 0; i < UPLOAD_STATUS_DELAY_RETRIES; i++) {
-            Thread.sleep(UPLOAD_STATUS_DELAY_MILLISECONDS);
-
-            status = usersApi.getUploadStatus(session.getId()).execute().body();
-            if (status.getStatus() == UploadStatus.VALIDATION_FAILED) {
-                // Short-circuit. Validation failed. No need to retry.
-                fail("Upload validation failed, UploadId=" + uploadId);
-            } else if (status.getStatus() == UploadStatus.SUCCEEDED) {
-                break;
-            }
+        // get validation status. Stop polling on failure too; there's no need to retry.
+        UploadValidationStatus status = Tests.retryHelper(
+                () -> usersApi.getUploadStatus(uploadId).execute().body(),
+                s -> s.getStatus() == UploadStatus.SUCCEEDED || s.getStatus() == UploadStatus.VALIDATION_FAILED,
+                UPLOAD_STATUS_DEADLINE_MILLISECONDS);
+        if (status.getStatus() == UploadStatus.VALIDATION_FAILED) {
+            fail("Upload validation failed, UploadId=" + uploadId);
         }
         // userClient.upload marks the download complete
         // marking an already completed download as complete again should succeed (and be a no-op)
@@ -0,0 +1,131 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static org.junit.Assert.assertEquals;
+import static org.sagebionetworks.bridge.rest.model.Role.DEVELOPER;
+
+import java.io.File;
+import java.util.List;
+import java.util.Locale;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.RestUtils;
+import org.sagebionetworks.bridge.rest.api.ForConsentedUsersApi;
+import org.sagebionetworks.bridge.rest.api.UploadSchemasApi;
+import org.sagebionetworks.bridge.rest.model.UploadRequest;
+import org.sagebionetworks.bridge.rest.model.UploadSession;
+import org.sagebionetworks.bridge.rest.model.UploadStatus;
+import org.sagebionetworks.bridge.rest.model.UploadValidationStatus;
+import org.sagebionetworks.bridge.user.TestUser;
+import org.sagebionetworks.bridge.user.TestUserHelper;
+
+/**
+ * Pushes many concurrent uploads of the upload-test fixtures through the upload flow and reports latency per stage:
+ * requesting the upload session, the S3 PUT, completing the upload, and the time until the health data record is
+ * available. Synchronous validation (the record comes back from completeUploadSession) and asynchronous validation
+ * (the record is polled for with getUploadStatus) are measured separately. Size the run with -Dload.users,
+ * -Dload.concurrency and -Dload.iterations.
+ */
+@Category(LoadTest.class)
+public class UploadThroughputTest {
+    private static final Logger LOG = LoggerFactory.getLogger(UploadThroughputTest.class);
+
+    private static final int USERS = Integer.getInteger("load.users", 10);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 10);
+    private static final int ITERATIONS = Integer.getInteger("load.iterations", 5);
+    private static final long VALIDATION_DEADLINE_MILLIS = 60000;
+    private static final List<String> FIXTURES = ImmutableList.of("legacy-survey-encrypted",
+            "generic-survey-encrypted", "legacy-non-survey-encrypted", "generic-non-survey-encrypted",
+            "schemaless-encrypted");
+
+    private static TestUser developer;
+    private static List<TestUser> users;
+    private static List<File> files;
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        developer = TestUserHelper.createAndSignInUser(UploadThroughputTest.class, false, DEVELOPER);
+        UploadTest.ensureSchemas(developer.getClient(UploadSchemasApi.class));
+
+        users = new LoadTestRunner(CONCURRENCY).createUsers(USERS,
+                () -> Tests.instrument(TestUserHelper.createAndSignInUser(UploadThroughputTest.class, true)));
+
+        String envName = developer.getClientManager().getConfig().getEnvironment().name()
+                .toLowerCase(Locale.ENGLISH);
+        ImmutableList.Builder<File> builder = ImmutableList.builder();
+        for (String fixture : FIXTURES) {
+            builder.add(new File("src/test/resources/upload-test/" + envName + "/" + fixture));
+        }
+        files = builder.build();
+    }
+
+    @AfterClass
+    public static void afterClass() throws Exception {
+        if (users != null) {
+            new LoadTestRunner(CONCURRENCY).forEach(users, (user, i) -> user.signOutAndDeleteUser());
+        }
+        if (developer != null) {
+            developer.signOutAndDeleteUser();
+        }
+    }
+
+    @Test
+    public void synchronousValidation() throws Exception {
+        runUploads(true);
+    }
+
+    @Test
+    public void asynchronousValidation() throws Exception {
+        runUploads(false);
+    }
+
+    private static void runUploads(boolean synchronous) throws Exception {
+        String mode = synchronous ? "sync" : "async";
+        LoadTestRunner runner = new LoadTestRunner(CONCURRENCY);
+        LatencyRecorder recorder = runner.getRecorder();
+
+        int failures = runner.run(users, ITERATIONS, (user, iteration) -> {
+            // Spread the fixtures across users so every fixture is in flight at the same time.
+            File file = files.get((users.indexOf(user) + iteration) % files.size());
+            String fixture = file.getName();
+            ForConsentedUsersApi usersApi = user.getClient(ForConsentedUsersApi.class);
+
+            UploadRequest request = RestUtils.makeUploadRequestForFile(file);
+            UploadSession session = recorder.time("1 requestUploadSession",
+                    () -> usersApi.requestUploadSession(request).execute().body());
+            recorder.time("2 uploadToS3", () -> {
+                RestUtils.uploadToS3(file, session.getUrl());
+                return null;
+            });
+
+            long completeStart = System.nanoTime();
+            UploadValidationStatus status = recorder.time("3 completeUploadSession (" + mode + ")",
+                    () -> usersApi.completeUploadSession(session.getId(), synchronous, false).execute().body());
+            if (!synchronous) {
+                status = Tests.retryHelper(() -> usersApi.getUploadStatus(session.getId()).execute().body(),
+                        s -> s.getStatus() == UploadStatus.SUCCEEDED
+                                || s.getStatus() == UploadStatus.VALIDATION_FAILED,
+                        VALIDATION_DEADLINE_MILLIS);
+            }
+            boolean succeeded = status.getStatus() == UploadStatus.SUCCEEDED && status.getRecord() != null;
+            long elapsed = System.nanoTime() - completeStart;
+            recorder.record("4 recordAvailable (" + mode + ")", elapsed, succeeded);
+            recorder.record("4 recordAvailable (" + mode + ") " + fixture, elapsed, succeeded);
+            if (!succeeded) {
+                throw new IllegalStateException("Upload " + session.getId() + " of " + fixture + " ended with " +
+                        status.getStatus() + ": " + status.getMessageList());
+            }
+        });
+
+        LOG.info("Upload throughput, {} validation: {} users, {} iterations, concurrency {}", mode, users.size(),
+                ITERATIONS, CONCURRENCY);
+        recorder.logSummary(LOG);
+        assertEquals(0, failures);
+    }
+}
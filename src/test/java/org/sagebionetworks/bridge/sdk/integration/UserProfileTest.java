@@ -16,7 +16,6 @@ import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 
 import okhttp3.MediaType;
-import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
@@ -56,9 +55,9 @@ public class UserProfileTest {
                 .header("Bridge-Session", testUser.getSession().getSessionToken())
                 .method("POST", RequestBody.create(MediaType.parse("application/json"), json)).build();
         
-        OkHttpClient client = new OkHttpClient();
-        Response response = client.newCall(request).execute();
-        assertEquals(200, response.code());
+        try (Response response = SharedHttpClients.getOkHttpClient().newCall(request).execute()) {
+            assertEquals(200, response.code());
+        }
         
         // Now get the participant record and verify that notifyByEmail is true (the default)
         ParticipantsApi participantsApi = testUser.getClient(ParticipantsApi.class);
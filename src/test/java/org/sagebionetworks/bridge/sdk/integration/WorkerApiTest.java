@@ -23,6 +23,7 @@ import org.joda.time.DateTimeZone;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.junit.experimental.categories.Category;
 
 import org.sagebionetworks.bridge.rest.RestUtils;
 import org.sagebionetworks.bridge.rest.api.ActivitiesApi;
@@ -55,6 +56,7 @@ import org.sagebionetworks.bridge.user.TestUserHelper;
 import org.sagebionetworks.bridge.util.IntegTestUtils;
 
 @SuppressWarnings({ "ConstantConditions", "Guava", "unchecked" })
+@Category(SerialTest.class)
 public class WorkerApiTest {
     private static final DateTimeZone TEST_USER_TIME_ZONE = DateTimeZone.forOffsetHours(-8);
     private static final String TEST_USER_TIME_ZONE_STRING = "-08:00";